@@ -0,0 +1,114 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the hot paths of a board, on generated maps of varying size, number of ants, number
+ * of obstacles and pheromone density
+ *
+ * <p>The tick and deposit benchmarks add ants and pheromones to the board, so the board is
+ * generated again before each iteration and every iteration starts from the same state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BoardBenchmark {
+
+    /*
+       The number of random points used by the collision benchmark
+    */
+    private static final int POINTS = 1024;
+
+    @Param({"800", "3200"})
+    private int width;
+
+    @Param({"100", "1000", "10000"})
+    private int ants;
+
+    @Param({"0", "50", "500"})
+    private int obstacles;
+
+    @Param({"0", "0.01", "0.1"})
+    private double pheromoneDensity;
+
+    private Board board;
+    private double[] xs;
+    private double[] ys;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.board =
+                BoardFixtures.generate(
+                        this.width, this.ants, this.obstacles, this.pheromoneDensity, 42);
+        final Random random = new Random(42);
+        this.xs = new double[POINTS];
+        this.ys = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            this.xs[i] = random.nextDouble(this.board.getWidth());
+            this.ys[i] = random.nextDouble(this.board.getHeight());
+        }
+        this.next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        this.board.stop();
+    }
+
+    /**
+     * Choose the next position of one ant, ants are taken in turn
+     *
+     * @return The next position of the ant
+     */
+    @Benchmark
+    public Point2D calculateNewPoint() {
+        this.next = (this.next + 1) % this.board.getAntCount();
+        return this.board.calculateNewPoint(this.next);
+    }
+
+    /**
+     * Check if an ant at a random position colludes with an obstacle
+     *
+     * @return True if the ant colludes with an obstacle
+     */
+    @Benchmark
+    public boolean obstacleCollision() {
+        this.next = (this.next + 1) % POINTS;
+        return this.board.isAntColludesWithObstacle(this.xs[this.next], this.ys[this.next]);
+    }
+
+    /** Deposit phase of a tick, each ant leaves a pheromone */
+    @Benchmark
+    public void depositPheromones() {
+        this.board.depositPheromones();
+    }
+
+    /** A full tick: spawn, move, deposit, evaporate and publish */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void tick() {
+        this.board.step(1);
+    }
+}
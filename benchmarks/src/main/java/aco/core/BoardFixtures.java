@@ -0,0 +1,106 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Generates boards for the benchmarks. A generated board has its source point in the top left
+ * corner, its destination point in the bottom right corner, randomly placed obstacles between them
+ * and randomly placed pheromones. All ants are spawned before the board is returned.
+ */
+final class BoardFixtures {
+
+    private static final int POINT_RADIUS = 25;
+    private static final int MIN_OBSTACLE_SIZE = 10;
+    private static final int MAX_OBSTACLE_SIZE = 60;
+
+    private BoardFixtures() {}
+
+    /**
+     * Create the settings used by the generated boards
+     *
+     * @param ants The number of ants of the board
+     * @return The settings of the board
+     */
+    static Settings settings(int ants) {
+        final Settings.SettingsBuilder builder = new Settings.SettingsBuilder();
+        builder.setNumberOfAnts(ants);
+        // Spawn all ants in the first tick
+        builder.setAntsPerSecond(ants * builder.getTicksPerSecond());
+        return builder.build();
+    }
+
+    /**
+     * Create the builder of a board with randomly placed obstacles. Obstacles colluding with the
+     * other elements are skipped, so a crowded board may have fewer obstacles than requested.
+     *
+     * @param width The width of the board, the height is three quarters of the width
+     * @param obstacles The number of obstacles to place
+     * @param seed The seed of the random placement
+     * @return The board builder
+     */
+    static Board.Builder builder(int width, int obstacles, long seed) {
+        final int height = width * 3 / 4;
+        final Random random = new Random(seed);
+        final Board.Builder builder = new Board.Builder();
+        builder.resetEnclosingRectangle(new Point(0, 0));
+        builder.setBounds(new Point(width, height));
+        try {
+            builder.setSourcePoint(new Point(0, 0), POINT_RADIUS);
+            builder.setDestinationPoint(
+                    new Point(width - 2 * POINT_RADIUS - 1, height - 2 * POINT_RADIUS - 1),
+                    POINT_RADIUS);
+        } catch (Board.ElementOutOfBoundsException
+                | Board.ElementColludesWithOtherElementsOfBoardException e) {
+            throw new IllegalArgumentException("Board too small: " + width, e);
+        }
+        for (int i = 0, attempts = 0; i < obstacles && attempts < 10 * obstacles; attempts++) {
+            final int x = random.nextInt(width - MAX_OBSTACLE_SIZE);
+            final int y = random.nextInt(height - MAX_OBSTACLE_SIZE);
+            try {
+                builder.createObstacle(new Point(x, y));
+                builder.resizeCurrentObstacle(
+                        new Point(
+                                x + random.nextInt(MIN_OBSTACLE_SIZE, MAX_OBSTACLE_SIZE),
+                                y + random.nextInt(MIN_OBSTACLE_SIZE, MAX_OBSTACLE_SIZE)));
+                builder.addCurrentObstacle();
+                i++;
+            } catch (Board.ElementOutOfBoundsException
+                    | Board.ElementColludesWithOtherElementsOfBoardException ignore) {
+                // Try another place
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Generate a board with all its ants spawned and the given pheromone density
+     *
+     * @param width The width of the board, the height is three quarters of the width
+     * @param ants The number of ants
+     * @param obstacles The number of obstacles
+     * @param pheromoneDensity The ratio of the pheromone cells containing a pheromone
+     * @param seed The seed of the random placements
+     * @return The generated board
+     */
+    static Board generate(int width, int ants, int obstacles, double pheromoneDensity, long seed) {
+        final Board board = BoardFixtures.builder(width, obstacles, seed).build(settings(ants));
+        board.spawnAnts(0);
+        final Random random = new Random(seed);
+        final int cells =
+                (int)
+                        (board.getWidth()
+                                * board.getHeight()
+                                / (board.getPheromoneCellSize() * board.getPheromoneCellSize()));
+        for (int i = 0; i < (int) (cells * pheromoneDensity); i++) {
+            board.addPheromone(
+                    random.nextDouble(board.getWidth()),
+                    random.nextDouble(board.getHeight()),
+                    random.nextInt(1, 10));
+        }
+        return board;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of the pheromone deposit, evaporation, diffusion and neighbourhood lookups */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PheromoneGridBenchmark {
+
+    private static final int CELL_SIZE = 2;
+    private static final long TIMEOUT = 60;
+    /*
+       The number of random cells used by the benchmarks
+    */
+    private static final int CELLS = 4096;
+
+    @Param({"800", "3200"})
+    private int width;
+
+    @Param({"0.01", "0.1", "0.5"})
+    private double pheromoneDensity;
+
+    private PheromoneGrid grid;
+    private int[] cells;
+    private double[] xs;
+    private double[] ys;
+    private int next;
+    private long tick;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final int height = this.width * 3 / 4;
+        this.grid = new PheromoneGrid(this.width, height, CELL_SIZE, TIMEOUT, 0);
+        final Random random = new Random(42);
+        final int total = this.grid.getColumns() * this.grid.getRows();
+        for (int i = 0; i < (int) (total * this.pheromoneDensity); i++) {
+            this.grid.deposit(random.nextInt(total), random.nextInt(1, 10), 0);
+        }
+        this.cells = new int[CELLS];
+        this.xs = new double[CELLS];
+        this.ys = new double[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            this.cells[i] = random.nextInt(total);
+            this.xs[i] = random.nextDouble(this.width);
+            this.ys[i] = random.nextDouble(height);
+        }
+        this.next = 0;
+        this.tick = 0;
+    }
+
+    /**
+     * Deposit a pheromone on a random cell
+     *
+     * @return True if the cell was empty
+     */
+    @Benchmark
+    public boolean deposit() {
+        this.next = (this.next + 1) % CELLS;
+        return this.grid.deposit(this.cells[this.next], 1, this.tick++);
+    }
+
+    /**
+     * Read the evaporated intensity of a random cell
+     *
+     * @return The intensity of the cell
+     */
+    @Benchmark
+    public float intensity() {
+        this.next = (this.next + 1) % CELLS;
+        return this.grid.intensity(this.cells[this.next], this.tick++);
+    }
+
+    /**
+     * Collect the pheromones sensed by an ant at a random position, with the default sensing radius
+     *
+     * @param blackhole Consumes the sensed cells
+     */
+    @Benchmark
+    public void senseNeighbourhood(Blackhole blackhole) {
+        this.next = (this.next + 1) % CELLS;
+        this.grid.forEachLiveCellInRadius(
+                this.xs[this.next], this.ys[this.next], 40, this.tick, blackhole::consume);
+    }
+
+    /**
+     * Compaction pass over all touched cells, one evaporation level after the deposits
+     *
+     * @param state The grid to compact, refilled before each invocation
+     * @param blackhole Consumes the visited cells
+     * @return The total intensity of the kept cells
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double compact(CompactionState state, Blackhole blackhole) {
+        return state.grid.compact(TIMEOUT, blackhole::consume);
+    }
+
+    /**
+     * One diffusion step of a grid of 1000 by 1000 cells
+     *
+     * @param state The diffusing grid
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double diffuse(DiffusionState state) {
+        return state.grid.diffuse(state.tick++, null);
+    }
+
+    /** A grid of 1000 by 1000 cells with diffusion enabled and a masked square in its center */
+    @State(Scope.Thread)
+    public static class DiffusionState {
+
+        private static final int SIZE = 1000 * CELL_SIZE;
+
+        @Param({"0.01", "0.1", "0.5"})
+        private double pheromoneDensity;
+
+        private PheromoneGrid grid;
+        private long tick;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            this.grid = new PheromoneGrid(SIZE, SIZE, CELL_SIZE, TIMEOUT, 0.5f);
+            this.grid.mask(
+                    (int cell) ->
+                            Math.abs(this.grid.centerX(cell) - SIZE / 2.0) < SIZE / 8.0
+                                    && Math.abs(this.grid.centerY(cell) - SIZE / 2.0) < SIZE / 8.0);
+            final Random random = new Random(42);
+            final int total = this.grid.getColumns() * this.grid.getRows();
+            for (int i = 0; i < (int) (total * this.pheromoneDensity); i++) {
+                this.grid.deposit(random.nextInt(total), random.nextInt(1, 10), 0);
+            }
+            this.tick = 1;
+        }
+    }
+
+    /** A filled grid, as compaction drops the evaporated cells it is refilled for each call */
+    @State(Scope.Thread)
+    public static class CompactionState {
+
+        @Param({"800", "3200"})
+        private int width;
+
+        @Param({"0.01", "0.1", "0.5"})
+        private double pheromoneDensity;
+
+        private PheromoneGrid grid;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            this.grid = new PheromoneGrid(this.width, this.width * 3 / 4, CELL_SIZE, TIMEOUT, 0);
+            final Random random = new Random(42);
+            final int total = this.grid.getColumns() * this.grid.getRows();
+            for (int i = 0; i < (int) (total * this.pheromoneDensity); i++) {
+                // Half of the cells evaporate completely during the compaction
+                this.grid.deposit(random.nextInt(total), random.nextInt(1, 3), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of the spawn phase, all ants of the board are spawned in a single tick */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpawnBenchmark {
+
+    @Param({"800", "3200"})
+    private int width;
+
+    @Param({"100", "1000", "10000"})
+    private int ants;
+
+    private Board.Builder builder;
+    private Settings settings;
+    private Board board;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.builder = BoardFixtures.builder(this.width, 0, 42);
+        this.settings = BoardFixtures.settings(this.ants);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        this.board = this.builder.build(this.settings);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        this.board.stop();
+    }
+
+    /**
+     * Spawn all the ants of a new board
+     *
+     * @return The number of spawned ants
+     */
+    @Benchmark
+    public int spawnAnts() {
+        this.board.spawnAnts(0);
+        return this.board.getAntCount();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.cli;
+
+import aco.core.Board;
+import aco.core.Settings;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a sweep of simulations described by an experiment specification: every map is simulated with
+ * every settings override and every seed. The runs are executed by a single pool with a bounded
+ * number of threads shared by all the runs, each board being stepped on the thread of its run, and
+ * one row of results is printed per run in the order of the specification.
+ */
+class ExperimentRunner {
+
+    private static final String HEADER =
+            "map,settings,seed,ticks,elapsed_s,ticks_per_s,ant_steps_per_s,first_arrival_tick,"
+                    + "arrivals,round_trips,shortest_outbound_path,mean_outbound_path";
+
+    private final ExperimentRunner.Spec spec;
+    /*
+       The directory of the specification, relative paths of the specification are resolved
+       against it
+    */
+    private final File directory;
+
+    /**
+     * Load the given experiment specification
+     *
+     * @param specification The JSON file of the specification
+     * @throws IOException if the specification can not be read
+     * @throws IllegalArgumentException if the specification is incomplete
+     */
+    ExperimentRunner(File specification) throws IOException {
+        this.spec = new ObjectMapper().readValue(specification, ExperimentRunner.Spec.class);
+        this.directory = specification.getAbsoluteFile().getParentFile();
+        if (this.spec.maps() == null || this.spec.maps().isEmpty()) {
+            throw new IllegalArgumentException("The experiment requires at least one map");
+        }
+        if (this.spec.ticks() <= 0 && this.spec.duration() <= 0) {
+            throw new IllegalArgumentException("The experiment requires ticks or a duration");
+        }
+    }
+
+    /**
+     * Execute all the runs of the experiment and print their results as CSV rows. A failed run is
+     * reported on the standard error and does not stop the other runs.
+     *
+     * @param out The stream to print the results on
+     * @throws IOException if the base settings or the settings overrides can not be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting for a run
+     */
+    void run(PrintStream out) throws IOException, InterruptedException {
+        final List<ExperimentRunner.Run> runs = this.runs();
+        final int parallelism =
+                this.spec.parallelism() > 0
+                        ? this.spec.parallelism()
+                        : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService pool =
+                Executors.newFixedThreadPool(
+                        Math.min(parallelism, runs.size()),
+                        (Runnable runnable) -> {
+                            final Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "aco-experiment-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            final List<Future<SimulationRunner.Report>> reports = new ArrayList<>(runs.size());
+            for (ExperimentRunner.Run run : runs) {
+                reports.add(pool.submit(() -> this.execute(run)));
+            }
+            out.println(HEADER);
+            for (int i = 0; i < runs.size(); i++) {
+                final ExperimentRunner.Run run = runs.get(i);
+                try {
+                    ExperimentRunner.print(out, run, reports.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.printf(
+                            "Run %s, settings %d, seed %d failed: %s%n",
+                            run.map(), run.override(), run.seed(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Build the runs of the experiment, every map with every settings override and every seed.
+     * Settings are built on the calling thread as their builder is not thread safe.
+     *
+     * @return The runs in the order of the specification
+     * @throws IOException if the base settings or the settings overrides can not be read
+     */
+    private List<ExperimentRunner.Run> runs() throws IOException {
+        final List<JsonNode> overrides =
+                this.spec.settings() == null || this.spec.settings().isEmpty()
+                        ? List.of(new ObjectMapper().createObjectNode())
+                        : this.spec.settings();
+        final List<Long> seeds =
+                this.spec.seeds() == null || this.spec.seeds().isEmpty()
+                        ? List.of(new Settings.SettingsBuilder().getSeed())
+                        : this.spec.seeds();
+        final List<ExperimentRunner.Run> runs = new ArrayList<>();
+        for (String map : this.spec.maps()) {
+            for (int i = 0; i < overrides.size(); i++) {
+                for (long seed : seeds) {
+                    final Settings.SettingsBuilder builder = new Settings.SettingsBuilder();
+                    if (this.spec.baseSettings() != null) {
+                        builder.load(this.resolve(this.spec.baseSettings()));
+                    }
+                    builder.fromJSON(overrides.get(i).toString());
+                    builder.setSeed(seed);
+                    runs.add(new ExperimentRunner.Run(map, i, seed, builder.build()));
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Execute a single run on the calling thread
+     *
+     * @param run The run to execute
+     * @return The report of the run
+     * @throws IOException if the map of the run can not be read
+     */
+    private SimulationRunner.Report execute(ExperimentRunner.Run run) throws IOException {
+        final Board board = Board.Builder.from(this.resolve(run.map())).build(run.settings());
+        try {
+            return new SimulationRunner(
+                            board,
+                            this.spec.ticks(),
+                            this.spec.duration() > 0
+                                    ? Duration.ofMillis(Math.round(this.spec.duration() * 1000))
+                                    : null,
+                            0,
+                            System.err)
+                    .run();
+        } finally {
+            board.stop();
+        }
+    }
+
+    /**
+     * Resolve a path of the specification
+     *
+     * @param path The path, absolute or relative to the directory of the specification
+     * @return The resolved file
+     */
+    private File resolve(String path) {
+        final File file = new File(path);
+        return file.isAbsolute() ? file : new File(this.directory, path);
+    }
+
+    /**
+     * Print the results of a run as a CSV row
+     *
+     * @param out The stream to print on
+     * @param run The run
+     * @param report The report of the run
+     */
+    private static void print(
+            PrintStream out, ExperimentRunner.Run run, SimulationRunner.Report report) {
+        final Board.Statistics statistics = report.statistics();
+        out.println(
+                String.format(
+                        Locale.ROOT,
+                        "%s,%d,%d,%d,%.3f,%.1f,%.1f,%d,%d,%d,%.1f,%.1f",
+                        run.map().contains(",") ? '"' + run.map() + '"' : run.map(),
+                        run.override(),
+                        run.seed(),
+                        report.ticks(),
+                        report.elapsedNanos() / 1e9,
+                        report.ticksPerSecond(),
+                        report.antStepsPerSecond(),
+                        report.firstArrivalTick(),
+                        statistics.arrivals(),
+                        statistics.roundTrips(),
+                        statistics.shortestOutboundPathLength(),
+                        statistics.meanOutboundPathLength()));
+    }
+
+    /**
+     * A single run of the experiment
+     *
+     * @param map The path of the map
+     * @param override The index of the settings override in the specification
+     * @param seed The seed of the run
+     * @param settings The settings of the run
+     */
+    private record Run(String map, int override, long seed, Settings settings) {}
+
+    /**
+     * The JSON specification of an experiment
+     *
+     * @param maps The paths of the maps saved from the GUI
+     * @param baseSettings The path of the settings saved from the GUI every run starts from, the
+     *     default settings if null
+     * @param settings The settings overrides, each one is a JSON object using the keys of the saved
+     *     settings. A single run without override per map and seed if empty
+     * @param seeds The seeds of the runs, the default seed if empty
+     * @param ticks The number of ticks of each run, 0 for no limit
+     * @param duration The maximal wall time of each run in seconds, 0 for no limit
+     * @param parallelism The maximal number of concurrent runs, the number of processors if 0
+     */
+    record Spec(
+            @JsonProperty("maps") List<String> maps,
+            @JsonProperty("base-settings") String baseSettings,
+            @JsonProperty("settings") List<JsonNode> settings,
+            @JsonProperty("seeds") List<Long> seeds,
+            @JsonProperty("ticks") long ticks,
+            @JsonProperty("duration") double duration,
+            @JsonProperty("parallelism") int parallelism) {}
+}
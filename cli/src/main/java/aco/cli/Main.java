@@ -0,0 +1,151 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.cli;
+
+import aco.core.Board;
+import aco.core.Settings;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+/** Entry point of the headless simulator */
+public class Main {
+
+    private static final String USAGE =
+            "Usage: aco-cli --map <map.json> [--settings <settings.json>]"
+                    + " (--ticks <count> | --duration <seconds>) [--report-every <ticks>]\n"
+                    + "       aco-cli --experiment <experiment.json>";
+
+    private File map;
+    private File settings;
+    private long ticks;
+    private Duration duration;
+    private long reportEvery;
+    private File experiment;
+
+    /**
+     * Parse the command line arguments
+     *
+     * @param args The command line arguments
+     * @throws IllegalArgumentException if an argument is unknown, missing or malformed
+     */
+    private Main(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            final String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            final String value = args[++i];
+            switch (option) {
+                case "--map" -> this.map = new File(value);
+                case "--settings" -> this.settings = new File(value);
+                case "--ticks" -> this.ticks = Main.parsePositive(option, value);
+                case "--duration" -> this.duration = Main.parseDuration(option, value);
+                case "--report-every" -> this.reportEvery = Main.parsePositive(option, value);
+                case "--experiment" -> this.experiment = new File(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (this.experiment != null) {
+            // The experiment specification contains the maps, the settings and the limits
+            return;
+        }
+        if (this.map == null) {
+            throw new IllegalArgumentException("A map is required");
+        }
+        if (this.ticks == 0 && this.duration == null) {
+            throw new IllegalArgumentException("Either --ticks or --duration is required");
+        }
+    }
+
+    /**
+     * Parse the value of an option expecting a positive number
+     *
+     * @param option The name of the option
+     * @param value The value to parse
+     * @return The parsed value
+     */
+    private static long parsePositive(String option, String value) {
+        try {
+            final long result = Long.parseLong(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignore) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " expects a positive number, got " + value);
+    }
+
+    /**
+     * Parse the value of an option expecting a positive number of seconds
+     *
+     * @param option The name of the option
+     * @param value The value to parse
+     * @return The parsed duration, at least one millisecond
+     */
+    private static Duration parseDuration(String option, String value) {
+        try {
+            final double seconds = Double.parseDouble(value);
+            // Rejects NaN, infinity and the durations rounded down to zero
+            final long millis = Math.round(seconds * 1000);
+            if (Double.isFinite(seconds) && millis > 0) {
+                return Duration.ofMillis(millis);
+            }
+        } catch (NumberFormatException ignore) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(
+                option + " expects a positive number of seconds, got " + value);
+    }
+
+    /**
+     * Load the map and the settings, then run the simulation
+     *
+     * @throws IOException if the map or the settings can not be read
+     * @throws InterruptedException if interrupted while waiting for the runs of an experiment
+     */
+    private void run() throws IOException, InterruptedException {
+        if (this.experiment != null) {
+            new ExperimentRunner(this.experiment).run(System.out);
+            return;
+        }
+        final Settings.SettingsBuilder settingsBuilder = new Settings.SettingsBuilder();
+        if (this.settings != null) {
+            settingsBuilder.load(this.settings);
+        }
+        final Board board = Board.Builder.from(this.map).build(settingsBuilder.build());
+        final SimulationRunner runner =
+                new SimulationRunner(
+                        board, this.ticks, this.duration, this.reportEvery, System.out);
+        runner.run().print(System.out);
+        board.stop();
+    }
+
+    public static void main(String[] args) {
+        final Main main;
+        try {
+            main = new Main(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            main.run();
+        } catch (IOException e) {
+            System.err.println("Unable to load the simulation: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(
+                    (main.experiment != null ? "Invalid experiment: " : "Invalid simulation: ")
+                            + e.getMessage());
+            System.exit(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.cli;
+
+import aco.core.Board;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runs a board without any rendering, as fast as possible, until a number of ticks or a wall time
+ * is reached, then reports the throughput, the memory usage and the convergence of the simulation.
+ */
+class SimulationRunner {
+
+    private final Board board;
+    private final long maxTicks;
+    private final Duration maxDuration;
+    private final long reportEvery;
+    private final PrintStream out;
+
+    /**
+     * Creates a runner for the given board
+     *
+     * @param board The board to simulate
+     * @param maxTicks The number of ticks to execute, 0 for no limit
+     * @param maxDuration The maximal wall time of the simulation, null for no limit
+     * @param reportEvery The number of ticks between two progress lines, 0 to disable them
+     * @param out The stream to print the progress on
+     */
+    SimulationRunner(
+            Board board, long maxTicks, Duration maxDuration, long reportEvery, PrintStream out) {
+        if (maxTicks <= 0 && maxDuration == null) {
+            throw new IllegalArgumentException("Either a tick count or a duration is required");
+        }
+        this.board = board;
+        this.maxTicks = maxTicks;
+        this.maxDuration = maxDuration;
+        this.reportEvery = reportEvery;
+        this.out = out;
+    }
+
+    /**
+     * Run the simulation until one of the limits is reached
+     *
+     * @return The report of the simulation
+     */
+    SimulationRunner.Report run() {
+        final List<MemoryPoolMXBean> heapPools =
+                ManagementFactory.getMemoryPoolMXBeans().stream()
+                        .filter((MemoryPoolMXBean pool) -> pool.getType() == MemoryType.HEAP)
+                        .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        final long start = System.nanoTime();
+        final long deadline =
+                this.maxDuration == null ? Long.MAX_VALUE : start + this.maxDuration.toNanos();
+        long ticks = 0, antSteps = 0, firstArrivalTick = -1;
+        Board.Statistics previous = this.board.getStatistics();
+        while ((this.maxTicks <= 0 || ticks < this.maxTicks) && System.nanoTime() < deadline) {
+            this.board.step(1);
+            ticks++;
+            // Every ant on the board moved once during the tick
+            antSteps += this.board.getAntCount();
+            if (firstArrivalTick < 0 && this.board.getStatistics().arrivals() > 0) {
+                firstArrivalTick = ticks;
+            }
+            if (this.reportEvery > 0 && ticks % this.reportEvery == 0) {
+                final Board.Statistics current = this.board.getStatistics();
+                this.printProgress(System.nanoTime() - start, previous, current);
+                previous = current;
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long peakHeap =
+                heapPools.stream()
+                        .mapToLong((MemoryPoolMXBean pool) -> pool.getPeakUsage().getUsed())
+                        .sum();
+        return new SimulationRunner.Report(
+                ticks, antSteps, elapsed, peakHeap, firstArrivalTick, this.board.getStatistics());
+    }
+
+    /**
+     * Print the progress of the simulation since the previous progress line
+     *
+     * @param elapsed The elapsed wall time in nanoseconds
+     * @param previous The statistics at the previous progress line
+     * @param current The current statistics
+     */
+    private void printProgress(long elapsed, Board.Statistics previous, Board.Statistics current) {
+        final long arrivals = current.arrivals() - previous.arrivals();
+        final long roundTrips = current.roundTrips() - previous.roundTrips();
+        final double outbound = current.outboundPathLength() - previous.outboundPathLength();
+        this.out.printf(
+                "tick %d (%.1f s): %d ants, %d arrivals, %d round trips, mean outbound path %.1f%n",
+                current.tick(),
+                elapsed / 1e9,
+                current.ants(),
+                arrivals,
+                roundTrips,
+                arrivals == 0 ? 0 : outbound / arrivals);
+    }
+
+    /**
+     * The result of a simulation run
+     *
+     * @param ticks The number of executed ticks
+     * @param antSteps The number of ant moves
+     * @param elapsedNanos The wall time of the run in nanoseconds
+     * @param peakHeapBytes The sum of the peak usages of the heap memory pools during the run
+     * @param firstArrivalTick The number of ticks executed until the first arrival to the
+     *     destination point, -1 if no ant arrived
+     * @param statistics The convergence statistics at the end of the run
+     */
+    record Report(
+            long ticks,
+            long antSteps,
+            long elapsedNanos,
+            long peakHeapBytes,
+            long firstArrivalTick,
+            Board.Statistics statistics) {
+
+        /**
+         * Get the number of ticks executed per second
+         *
+         * @return The tick throughput
+         */
+        double ticksPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.ticks * 1e9 / this.elapsedNanos;
+        }
+
+        /**
+         * Get the number of ant moves per second
+         *
+         * @return The ant step throughput
+         */
+        double antStepsPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.antSteps * 1e9 / this.elapsedNanos;
+        }
+
+        /**
+         * Print the report on the given stream
+         *
+         * @param out The stream to print on
+         */
+        void print(PrintStream out) {
+            out.printf("Ticks: %d in %.3f s%n", this.ticks, this.elapsedNanos / 1e9);
+            out.printf(
+                    "Throughput: %.1f ticks/s, %.1f ant-steps/s%n",
+                    this.ticksPerSecond(), this.antStepsPerSecond());
+            out.printf("Heap high-water mark: %.1f MiB%n", this.peakHeapBytes / (1024. * 1024.));
+            out.printf(
+                    "Ants: %d, arrivals: %d, round trips: %d%n",
+                    this.statistics.ants(),
+                    this.statistics.arrivals(),
+                    this.statistics.roundTrips());
+            if (this.firstArrivalTick >= 0) {
+                out.printf("First arrival: tick %d%n", this.firstArrivalTick);
+            }
+            out.printf(
+                    "Mean path length: outbound %.1f, return %.1f%n",
+                    this.statistics.meanOutboundPathLength(),
+                    this.statistics.meanReturnPathLength());
+            out.printf(
+                    "Shortest outbound path length: %.1f%n",
+                    this.statistics.shortestOutboundPathLength());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Compact store of the ants of a board. The state of the ants is kept in parallel primitive arrays
+ * instead of one object per ant, so iterating over the ants only touches contiguous memory. Ants
+ * are never removed, thus the index of an ant in the population is also its identifier.
+ *
+ * <p>The population grows only in the spawn phase of the simulation engine. The move phase updates
+ * the ants in parallel by chunks, each chunk being updated by a single thread. As the size of a
+ * chunk is a multiple of 64, two chunks never share a word of the state bitset.
+ */
+class AntPopulation {
+
+    /*
+       The number of ants updated by the same thread. Must be a multiple of 64
+    */
+    static final int CHUNK_SIZE = 1024;
+    /*
+       The increment of the SplitMix64 generator of the ants
+    */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private double[] xs;
+    private double[] ys;
+    /*
+       The length of the path travelled by each ant since its last arrival to the source or the
+       destination point
+    */
+    private double[] pathLengths;
+    /*
+       The state of the random generator of each ant. Each ant draws from its own generator, so
+       the draws do not depend on the thread moving the ant
+    */
+    private long[] randomStates;
+    /*
+       Bitset of the ants returning to the source point
+    */
+    private long[] returning;
+    private int size;
+
+    /**
+     * Creates an empty population
+     *
+     * @param capacity The initial capacity of the population
+     */
+    AntPopulation(int capacity) {
+        final int initialCapacity = Math.max(64, capacity);
+        this.xs = new double[initialCapacity];
+        this.ys = new double[initialCapacity];
+        this.pathLengths = new double[initialCapacity];
+        this.randomStates = new long[initialCapacity];
+        this.returning = new long[(initialCapacity + 63) >>> 6];
+        this.size = 0;
+    }
+
+    /**
+     * Add a new ant to the population
+     *
+     * @param x The x coordinate of the center of the ant
+     * @param y The y coordinate of the center of the ant
+     * @param seed The seed of the random generator of the ant
+     * @return The identifier of the new ant
+     */
+    int add(double x, double y, long seed) {
+        if (this.size == this.xs.length) {
+            this.grow();
+        }
+        final int id = this.size;
+        this.xs[id] = x;
+        this.ys[id] = y;
+        this.randomStates[id] = seed;
+        this.size++;
+        return id;
+    }
+
+    /**
+     * Get the number of ants in the population
+     *
+     * @return The number of ants
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the x coordinate of the center of the given ant
+     *
+     * @param id The identifier of the ant
+     * @return The x coordinate of the center of the ant
+     */
+    double x(int id) {
+        return this.xs[id];
+    }
+
+    /**
+     * Get the y coordinate of the center of the given ant
+     *
+     * @param id The identifier of the ant
+     * @return The y coordinate of the center of the ant
+     */
+    double y(int id) {
+        return this.ys[id];
+    }
+
+    /**
+     * Move the given ant to the given position
+     *
+     * @param id The identifier of the ant
+     * @param x The new x coordinate of the center of the ant
+     * @param y The new y coordinate of the center of the ant
+     */
+    void moveTo(int id, double x, double y) {
+        this.pathLengths[id] += Math.hypot(x - this.xs[id], y - this.ys[id]);
+        this.xs[id] = x;
+        this.ys[id] = y;
+    }
+
+    /**
+     * Get the length of the path travelled by the given ant since its last arrival, and start a new
+     * path
+     *
+     * @param id The identifier of the ant
+     * @return The length of the completed path
+     */
+    double completePath(int id) {
+        final double length = this.pathLengths[id];
+        this.pathLengths[id] = 0;
+        return length;
+    }
+
+    /**
+     * Check if the given ant is returning to the source point
+     *
+     * @param id The identifier of the ant
+     * @return True if the ant is returning to the source point
+     */
+    boolean isReturning(int id) {
+        return (this.returning[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Update the returning state of the given ant
+     *
+     * @param id The identifier of the ant
+     * @param value True if the ant is returning to the source point
+     */
+    void setReturning(int id, boolean value) {
+        if (value) {
+            this.returning[id >>> 6] |= 1L << id;
+            return;
+        }
+        this.returning[id >>> 6] &= ~(1L << id);
+    }
+
+    /**
+     * Draw a random number from the generator of the given ant (SplitMix64)
+     *
+     * @param id The identifier of the ant
+     * @return A random number uniformly distributed between 0, inclusive, and 1, exclusive
+     */
+    double nextDouble(int id) {
+        long z = (this.randomStates[id] += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Draw a random number in the given range from the generator of the given ant
+     *
+     * @param id The identifier of the ant
+     * @param origin The lower bound of the range, inclusive
+     * @param bound The upper bound of the range, exclusive
+     * @return A random number uniformly distributed in the range
+     */
+    double nextDouble(int id, double origin, double bound) {
+        return origin + (bound - origin) * this.nextDouble(id);
+    }
+
+    /**
+     * Call the given consumer in parallel for each chunk of ants. Each chunk is processed by a
+     * single thread and the method returns once all chunks are processed.
+     *
+     * @param consumer The consumer called with the bounds of each chunk
+     */
+    void parallelForEachChunk(ChunkConsumer consumer) {
+        final int total = this.size;
+        final int chunks = (total + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks)
+                .parallel()
+                .forEach(
+                        (int chunk) ->
+                                consumer.accept(
+                                        chunk * CHUNK_SIZE,
+                                        Math.min(total, (chunk + 1) * CHUNK_SIZE)));
+    }
+
+    /** Double the capacity of the population */
+    private void grow() {
+        final int capacity = this.xs.length * 2;
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.pathLengths = Arrays.copyOf(this.pathLengths, capacity);
+        this.randomStates = Arrays.copyOf(this.randomStates, capacity);
+        this.returning = Arrays.copyOf(this.returning, (capacity + 63) >>> 6);
+    }
+
+    @FunctionalInterface
+    interface ChunkConsumer {
+
+        /**
+         * Process the ants of a chunk
+         *
+         * @param from The identifier of the first ant of the chunk, inclusive
+         * @param to The identifier of the last ant of the chunk, exclusive
+         */
+        void accept(int from, int to);
+    }
+}
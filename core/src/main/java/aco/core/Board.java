@@ -13,41 +13,99 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.SplittableRandom;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.apache.commons.math3.util.Pair;
 
-public class Board extends Rectangle implements Runnable {
+public class Board extends Rectangle {
 
-    private final PausableThreadPoolExecutor executor;
+    /*
+       The number of random points an ant draws before giving up and staying in place for a tick
+    */
+    private static final int MAX_DRAWS = 16;
+
+    private final SimulationEngine engine;
     private final Board.CircularElement sourcePoint;
     private final Board.CircularElement destinationPoint;
     private final Set<Board.Obstacle> obstacles;
-    private volatile ConcurrentHashMap<Point2D, Pheromone> pheromones;
-    private volatile CopyOnWriteArraySet<Ant> ants;
+    private final ObstacleIndex<Board.Obstacle> obstacleIndex;
+    /*
+       The occupancy of the obstacles, and of the obstacles grown by the size of an ant. Exact
+       tests on the obstacle index are only made in the cells on the edges of the obstacles. Null
+       if disabled
+    */
+    private final OccupancyGrid obstacleGrid, antGrid;
+    /*
+       The distances to the destination and source points around the obstacles, null if disabled
+    */
+    private final DistanceField toDestination, toSource;
+    private final PheromoneGrid pheromones;
+    private final AntPopulation ants;
+    /*
+       The idle ant views, borrowed by the threads of the move phase for a chunk of ants and given
+       back after it, so the views are reused from one tick to the next whatever the thread. The
+       pool is guarded by its own lock
+    */
+    private final ArrayDeque<Ant> antViews;
     private volatile Set<Board.Subscriber> subscribers;
+    private final Set<Board.FrameSubscriber> frameSubscribers;
+    /*
+       The frames released by all their subscribers, reused by the next ticks. Guarded by its own
+       lock, the frames are released by the threads of the subscribers
+    */
+    private final ArrayDeque<Board.Frame> freeFrames;
     private final Settings settings;
 
-    private static final Random r = new Random();
-
-    private volatile Optional<Boolean> isPaused;
+    /*
+       Random generator of the spawn phase, it also seeds the random generator of each spawned ant
+    */
+    private final SplittableRandom spawnRandom;
+
+    /*
+       The number of ticks between two compactions of the pheromone grid, 0 if disabled
+    */
+    private final long compactionTicks;
+    /*
+       The number of ticks of a metrics window, the total intensity is updated at least as often
+    */
+    private final long metricsTicks;
+    /*
+       Fractional number of ants to spawn carried from one tick to the next one
+    */
+    private double spawnCredit;
+    /*
+       The identifier of the first ant spawned during the current tick
+    */
+    private int firstSpawnedAnt;
+    /*
+       The pheromone cells whose intensity changed since the last frame, only tracked while there
+       are frame subscribers
+    */
+    private int[] dirtyCells;
+    private int dirtyCount;
+    private final BitSet dirty;
+    /*
+       Convergence statistics, updated concurrently by the move phase
+    */
+    private final LongAdder arrivals;
+    private final LongAdder roundTrips;
+    private final DoubleAdder outboundPathLengths;
+    private final DoubleAdder returnPathLengths;
+    private final DoubleAccumulator shortestOutboundPathLength;
 
     /**
      * Create a Board instance with the given parameters
@@ -56,26 +114,118 @@ public class Board extends Rectangle implements Runnable {
      * @param sourcePoint The source point of the board
      * @param destinationPoint The destination point of the board
      * @param obstacles The Set of obstacles in the board
+     * @param obstacleIndex The spatial index of the obstacles
      */
     Board(
             Rectangle bounds,
             Board.CircularElement sourcePoint,
             Board.CircularElement destinationPoint,
             Set<Board.Obstacle> obstacles,
+            ObstacleIndex<Board.Obstacle> obstacleIndex,
+            OccupancyGrid obstacleGrid,
+            OccupancyGrid antGrid,
             Settings settings) {
         super(bounds);
         this.sourcePoint = sourcePoint;
         this.destinationPoint = destinationPoint;
         this.obstacles = obstacles;
-        this.pheromones = new ConcurrentHashMap<>();
-        this.ants = new CopyOnWriteArraySet<>();
+        this.obstacleIndex = obstacleIndex;
+        this.obstacleGrid = obstacleGrid;
+        this.antGrid = antGrid;
+        if (settings.occupancyCellSize() > 0) {
+            this.toDestination =
+                    this.distanceField(
+                            obstacleIndex,
+                            bounds,
+                            settings,
+                            destinationPoint,
+                            settings.destinationPointRadius());
+            this.toSource =
+                    this.distanceField(
+                            obstacleIndex,
+                            bounds,
+                            settings,
+                            sourcePoint,
+                            settings.sourcePointRadius());
+        } else {
+            this.toDestination = null;
+            this.toSource = null;
+        }
+        this.pheromones =
+                new PheromoneGrid(
+                        bounds.width,
+                        bounds.height,
+                        settings.pheromoneCellSize(),
+                        SimulationEngine.msToTicks(
+                                settings, settings.pheromoneIntensityTimeoutMs()),
+                        settings.pheromoneDiffusionRate() / 100f);
+        if (this.pheromones.isDiffusing()) {
+            // Pheromones never diffuse into the cells whose center is inside an obstacle
+            this.pheromones.mask(
+                    (int cell) -> {
+                        final double x = this.pheromones.centerX(cell);
+                        final double y = this.pheromones.centerY(cell);
+                        final int size = settings.pheromoneCellSize();
+                        return obstacleIndex.anyMatch(
+                                new Rectangle2D.Double(x - size / 2.0, y - size / 2.0, size, size),
+                                (Board.Obstacle obstacle) -> obstacle.contains(x, y));
+                    });
+        }
+        this.ants = new AntPopulation(settings.numberOfAnts());
+        this.antViews = new ArrayDeque<>();
         this.subscribers = new HashSet<>();
-        // Try using settings.threadPoolSize()
-        this.executor =
-                new PausableThreadPoolExecutor(settings.numberOfAnts(), settings.threadpoolSize());
+        this.frameSubscribers = new CopyOnWriteArraySet<>();
+        this.freeFrames = new ArrayDeque<>();
         this.settings = settings;
-        // As the algorithme is neither started nor paused yet, isPaused boolean will be empty
-        this.isPaused = Optional.empty();
+        this.engine = new SimulationEngine(this, settings);
+        this.compactionTicks =
+                settings.pheromoneCompactionIntervalMs() > 0
+                        ? SimulationEngine.msToTicks(
+                                settings, settings.pheromoneCompactionIntervalMs())
+                        : 0;
+        this.metricsTicks =
+                SimulationEngine.msToTicks(
+                        settings, TimeUnit.NANOSECONDS.toMillis(SimulationMetrics.WINDOW_NANOS));
+        this.spawnCredit = 0;
+        this.spawnRandom = new SplittableRandom(settings.seed());
+        this.firstSpawnedAnt = 0;
+        this.dirtyCells = new int[64];
+        this.dirtyCount = 0;
+        this.dirty = new BitSet();
+        this.arrivals = new LongAdder();
+        this.roundTrips = new LongAdder();
+        this.outboundPathLengths = new DoubleAdder();
+        this.returnPathLengths = new DoubleAdder();
+        this.shortestOutboundPathLength =
+                new DoubleAccumulator(Math::min, java.lang.Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Compute the distance field of the given goal
+     *
+     * @param obstacleIndex The index of the obstacles of the board
+     * @param bounds The bounds of the board
+     * @param settings The settings of the simulation
+     * @param goal The source or destination point
+     * @param radius The radius in which an ant arrives to the goal
+     * @return The distance field to the goal
+     */
+    private DistanceField distanceField(
+            ObstacleIndex<Board.Obstacle> obstacleIndex,
+            Rectangle bounds,
+            Settings settings,
+            Board.CircularElement goal,
+            double radius) {
+        return new DistanceField(
+                obstacleIndex,
+                bounds.width,
+                bounds.height,
+                settings.occupancyCellSize(),
+                settings.antsSemiMajorAxis(),
+                settings.antsSemiMinorAxis(),
+                goal.getCenterX(),
+                goal.getCenterY(),
+                radius);
     }
 
     /**
@@ -106,12 +256,24 @@ public class Board extends Rectangle implements Runnable {
     }
 
     /**
-     * The set of pheromones on the current board
+     * Get the intensity of the pheromone at the given position
+     *
+     * @param position The position to get the pheromone intensity
+     * @return The intensity of the pheromone at the given position, 0 if there's no pheromone or
+     *     the position is outside the board
+     */
+    public float getPheromoneIntensity(Point2D position) {
+        final int cell = this.pheromones.cellOf(position.getX(), position.getY());
+        return cell < 0 ? 0 : this.pheromones.intensity(cell, this.engine.getTick());
+    }
+
+    /**
+     * Get the length of the side of a cell of the pheromone grid
      *
-     * @return The set of pheromones on the current board
+     * @return The size of a pheromone cell
      */
-    public Map<Point2D, Pheromone> getPheromones() {
-        return this.pheromones;
+    public int getPheromoneCellSize() {
+        return this.pheromones.getCellSize();
     }
 
     /**
@@ -133,36 +295,98 @@ public class Board extends Rectangle implements Runnable {
     }
 
     /**
-     * When an object implementing interface {@code Runnable} is used to create a thread, starting
-     * the thread causes the object's {@code run} method to be called in that separately executing
-     * thread.
+     * Start the execution of the algorithm on a worker thread. Does nothing if the execution is
+     * already started, use {@link #resume()} to continue a paused execution.
      *
-     * <p>The general contract of the method {@code run} is that it may take any action whatsoever.
-     *
-     * @see Thread#run()
+     * @throws IllegalStateException if the execution is stopped
      */
-    @Override
-    public void run() {
-        if (Board.this.isPaused.isEmpty()) {
-            // Spawn new ants
-            this.executor.execute(this::spawnAnts);
-            this.executor.execute(this::updatePheromones);
-            this.executor.execute(this::moveAnts);
-            try {
-                boolean result = this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
-            } catch (InterruptedException ignore) {
-            }
-            return;
-        }
-        System.out.println("Unpaused");
-        Board.this.isPaused = Optional.of(false);
+    public void start() {
+        this.engine.start();
     }
 
-    /** Pause the current execution of the algorithm */
+    /**
+     * Pause the current execution of the algorithm. The current tick is completed before this
+     * method returns and the worker thread waits without using the CPU until the execution is
+     * resumed.
+     */
     public void pause() {
-        // FIXME: Pause not working
-        System.out.println("EXECUTOR PAUSED");
-        Board.this.isPaused = Optional.of(true);
+        this.engine.pause();
+    }
+
+    /** Resume the execution of the algorithm after a pause */
+    public void resume() {
+        this.engine.resume();
+    }
+
+    /**
+     * Check if the execution of the algorithm is paused
+     *
+     * @return True if the execution is paused
+     */
+    public boolean isPaused() {
+        return this.engine.isPaused();
+    }
+
+    /**
+     * Execute the given number of ticks on the calling thread, as fast as possible. Meant to be
+     * called while the execution is paused or not started.
+     *
+     * @param ticks The number of ticks to execute
+     */
+    public void step(long ticks) {
+        this.engine.step(ticks);
+    }
+
+    /**
+     * Get the number of ticks executed so far
+     *
+     * @return The index of the current tick
+     */
+    public long getTick() {
+        return this.engine.getTick();
+    }
+
+    /**
+     * Get the metrics of the simulation, updated at each tick
+     *
+     * @return The metrics of the simulation
+     */
+    public SimulationMetrics getMetrics() {
+        return this.engine.getMetrics();
+    }
+
+    /**
+     * Get the number of pheromone cells which received a pheromone since the last compaction
+     *
+     * @return The number of live pheromone cells
+     */
+    int getLivePheromoneCount() {
+        return this.pheromones.getLiveCount();
+    }
+
+    /**
+     * Get the number of ants on the board
+     *
+     * @return The number of spawned ants
+     */
+    public int getAntCount() {
+        return this.ants.size();
+    }
+
+    /**
+     * Get the convergence statistics of the simulation since its start
+     *
+     * @return The current statistics
+     */
+    public Board.Statistics getStatistics() {
+        return new Board.Statistics(
+                this.engine.getTick(),
+                this.ants.size(),
+                this.arrivals.sum(),
+                this.roundTrips.sum(),
+                this.outboundPathLengths.sum(),
+                this.returnPathLengths.sum(),
+                this.arrivals.sum() == 0 ? 0 : this.shortestOutboundPathLength.get());
     }
 
     /**
@@ -174,41 +398,88 @@ public class Board extends Rectangle implements Runnable {
         return new Builder(this.sourcePoint, this.destinationPoint, this.obstacles, this);
     }
 
-    /** Stop the current execution of the algorithm */
+    /**
+     * Stop the current execution of the algorithm. Returns once the worker thread is terminated,
+     * the execution can't be started again afterwards.
+     */
     public void stop() {
-        this.executor.shutdown();
+        this.engine.stop();
     }
 
-    private boolean isPaused() {
-        return (Board.this.isPaused.isPresent() && Board.this.isPaused.get());
+    /**
+     * Evaporate phase of a tick. Evaporation itself is computed lazily by the pheromone grid, this
+     * phase publishes the intensity changes to the subscribers and periodically drops the
+     * evaporated pheromones. If the diffusion is enabled, the pheromones are first spread to the
+     * neighbouring cells and evaporated at each tick.
+     *
+     * <p>The changes are published at each tick while the board has subscribers, otherwise only
+     * once per metrics window to update the total intensity. Publication does not depend on the
+     * compaction, which may be disabled. With diffusion, the stencil itself reports the changed
+     * cells and the total intensity, so the live cells are not visited again.
+     *
+     * @param tick The current tick
+     */
+    void evaporatePheromones(long tick) {
+        final IntConsumer publish = (int cell) -> this.publishPheromone(cell, tick);
+        final boolean publishing = !this.subscribers.isEmpty() || !this.frameSubscribers.isEmpty();
+        if (this.pheromones.isDiffusing()) {
+            this.engine
+                    .getMetrics()
+                    .setTotalIntensity(this.pheromones.diffuse(tick, publishing ? publish : null));
+        } else if (publishing || tick % this.metricsTicks == 0) {
+            this.engine.getMetrics().setTotalIntensity(this.pheromones.visitLive(tick, publish));
+        }
+        if (this.compactionTicks != 0 && tick % this.compactionTicks == 0) {
+            // Dropped cells are published first, in case the last pass did not see them evaporate
+            this.pheromones.compact(tick, publish);
+        }
     }
 
-    /** Update all pheromones */
-    private void updatePheromones() {
-        while (!Board.this.isPaused()) {
-            // Evaporate all pheromones which ca evaporate
-            this.pheromones.values().parallelStream()
-                    .filter(Pheromone::canEvaporate)
-                    .forEach(Pheromone::evaporate);
-        }
-        while (Board.this.isPaused())
-            ;
-        updatePheromones();
+    /** Move phase of a tick, move all ants in parallel */
+    void moveAnts() {
+        this.ants.parallelForEachChunk(
+                (int from, int to) -> {
+                    final Ant ant = this.borrowAntView();
+                    try {
+                        for (int id = from; id < to; id++) {
+                            ant.bind(id).move();
+                        }
+                    } finally {
+                        this.releaseAntView(ant);
+                    }
+                });
     }
 
-    /** Move all ants parallelized in a separate thread pool */
-    private void moveAnts() {
-        while (!Board.this.isPaused()) {
-            // Move all ants
-            this.ants.parallelStream()
-                    .forEach(
-                            (ant) -> {
-                                ant.move();
-                            });
+    /**
+     * Take an idle ant view from the pool, or create one if all the views are in use
+     *
+     * @return An unbound ant view, only used by the calling thread until it is released
+     */
+    private Ant borrowAntView() {
+        final Ant ant;
+        synchronized (this.antViews) {
+            ant = this.antViews.poll();
+        }
+        return ant != null ? ant : new Ant();
+    }
+
+    /**
+     * Give back the given ant view to the pool
+     *
+     * @param ant The ant view, no longer used by the calling thread
+     */
+    private void releaseAntView(Ant ant) {
+        synchronized (this.antViews) {
+            this.antViews.push(ant);
+        }
+    }
+
+    /** Deposit phase of a tick, each ant leaves a pheromone on its current position */
+    void depositPheromones() {
+        // TODO: Add pheromones on the line
+        for (int id = 0; id < this.ants.size(); id++) {
+            this.addPheromone(this.ants.x(id), this.ants.y(id), 1);
         }
-        while (Board.this.isPaused())
-            ;
-        moveAnts();
     }
 
     /**
@@ -227,6 +498,95 @@ public class Board extends Rectangle implements Runnable {
         return false;
     }
 
+    /**
+     * Add a new frame subscriber to the board. Frame subscribers receive all the changes of a tick
+     * at once, at the end of the tick
+     *
+     * @param subscriber The frame subscriber to add
+     * @return True if the subscriber is successfully added, false if it was already subscribed
+     */
+    public boolean subscribeFrames(Board.FrameSubscriber subscriber) {
+        return this.frameSubscribers.add(subscriber);
+    }
+
+    /**
+     * Removes the given frame subscriber from the frame subscribers set
+     *
+     * @param subscriber The frame subscriber to remove
+     * @return True if the subscriber removed successfully, false if it was not subscribed
+     */
+    public boolean unsubscribeFrames(Board.FrameSubscriber subscriber) {
+        return this.frameSubscribers.remove(subscriber);
+    }
+
+    /**
+     * Publish phase of a tick, deliver the changes of the tick to the frame subscribers
+     *
+     * @param tick The current tick
+     */
+    void publishFrame(long tick) {
+        if (this.frameSubscribers.isEmpty()) {
+            return;
+        }
+        final int antCount = this.ants.size();
+        final Board.Frame frame = this.nextFrame(antCount, this.dirtyCount);
+        for (int id = 0; id < antCount; id++) {
+            frame.antXs[id] = this.ants.x(id);
+            frame.antYs[id] = this.ants.y(id);
+        }
+        for (int i = 0; i < this.dirtyCount; i++) {
+            final int cell = this.dirtyCells[i];
+            frame.pheromoneCells[i] = cell;
+            frame.pheromoneIntensities[i] = this.pheromones.intensity(cell, tick);
+            this.dirty.clear(cell);
+        }
+        frame.tick = tick;
+        frame.antCount = antCount;
+        frame.firstSpawnedAnt = Math.min(this.firstSpawnedAnt, antCount);
+        frame.pheromoneCount = this.dirtyCount;
+        this.dirtyCount = 0;
+        final SimulationEvents.SubscriberDispatch event = new SimulationEvents.SubscriberDispatch();
+        event.begin();
+        for (Board.FrameSubscriber subscriber : this.frameSubscribers) {
+            frame.retain();
+            subscriber.onFrame(frame);
+        }
+        // The frame is recycled once the subscribers released it as well
+        frame.release();
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.subscribers = this.frameSubscribers.size();
+            event.ants = antCount;
+            event.changedPheromones = frame.pheromoneCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Get a frame to fill with the changes of a tick, a released frame if there is one
+     *
+     * @param antCount The number of ants of the tick
+     * @param pheromoneCount The number of pheromone cells changed during the tick
+     * @return A frame large enough for the changes, held by the board only
+     */
+    private Board.Frame nextFrame(int antCount, int pheromoneCount) {
+        Board.Frame frame;
+        synchronized (this.freeFrames) {
+            frame = this.freeFrames.poll();
+        }
+        if (frame == null) {
+            frame =
+                    new Board.Frame(
+                            this.freeFrames,
+                            this.pheromones.getCellSize(),
+                            this.pheromones.getColumns());
+        }
+        // The population grows up to the number of ants of the settings, allocated once
+        frame.reserve(Math.max(antCount, this.settings.numberOfAnts()), pheromoneCount);
+        return frame;
+    }
+
     /**
      * Removes the given subscriber from the subscribers set
      *
@@ -245,94 +605,227 @@ public class Board extends Rectangle implements Runnable {
     /**
      * Add pheromone with the given intensity to the given point
      *
-     * @param position The position of the pheromone to add
+     * @param x The x coordinate of the pheromone to add
+     * @param y The y coordinate of the pheromone to add
      * @param intensity The intensity of the pheromone to add
      */
-    private void addPheromone(Point2D position, int intensity) {
-
-        if (this.pheromones.get(position) == null) {
+    void addPheromone(double x, double y, int intensity) {
+        final int cell = this.pheromones.cellOf(x, y);
+        if (cell < 0) {
+            return;
+        }
+        final long tick = this.engine.getTick();
+        this.pheromones.deposit(cell, intensity, tick);
+        this.publishPheromone(cell, tick);
+    }
 
-            final Pheromone pheromone = new Pheromone(position, 0);
+    /**
+     * Notify the subscribers if the intensity of the pheromone in the given cell changed since the
+     * last time it was published
+     *
+     * @param cell The cell of the pheromone
+     * @param tick The current tick
+     */
+    private void publishPheromone(int cell, long tick) {
+        final int delta = this.pheromones.publish(cell, tick);
+        if (delta != 0) {
+            this.notifyPheromoneIntensityChanged(cell, delta);
+            this.markDirty(cell);
+        }
+    }
 
-            this.pheromones.put(position, pheromone);
+    /**
+     * Mark the given pheromone cell as changed for the next frame
+     *
+     * @param cell The cell of the pheromone
+     */
+    private void markDirty(int cell) {
+        if (this.frameSubscribers.isEmpty() || this.dirty.get(cell)) {
+            return;
+        }
+        this.dirty.set(cell);
+        if (this.dirtyCount == this.dirtyCells.length) {
+            this.dirtyCells = Arrays.copyOf(this.dirtyCells, this.dirtyCells.length * 2);
+        }
+        this.dirtyCells[this.dirtyCount++] = cell;
+    }
 
-            // Calculate the distance to each ant of the given pheromone
-            this.ants.parallelStream().forEach(a -> a.calculateDistanceToPheromone(pheromone));
+    /**
+     * Notify all subscribers that the intensity of the pheromone in the given cell changed
+     *
+     * @param cell The cell of the pheromone
+     * @param delta The delta of the intensity change
+     */
+    private void notifyPheromoneIntensityChanged(int cell, int delta) {
+        if (this.subscribers.isEmpty()) {
+            return;
         }
-        this.pheromones.get(position).updateIntensity(intensity);
+        final Point2D position = this.pheromones.center(cell);
+        this.subscribers.parallelStream()
+                .forEach((Board.Subscriber s) -> s.onPheromoneIntensityChanged(position, delta));
     }
 
-    /** Spawn new ants each second */
-    private void spawnAnts() {
+    /**
+     * Spawn phase of a tick. The number of ants per second is spread over the ticks of a second
+     * until the number of ants is reached
+     *
+     * @param tick The current tick
+     */
+    void spawnAnts(long tick) {
+        this.firstSpawnedAnt = this.ants.size();
+        this.spawnCredit += (double) this.settings.antsPerSecond() / this.settings.ticksPerSecond();
+        final int available = (int) this.spawnCredit;
+        this.spawnCredit -= available;
+        final int count = Math.min(available, this.settings.numberOfAnts() - this.ants.size());
+        if (count <= 0) {
+            return;
+        }
         final AntFactory factory = new AntFactory();
-        while (!Board.this.isPaused() && this.ants.size() <= Board.this.settings.numberOfAnts()) {
-            Stream.generate(factory::randomAnt)
-                    .limit(this.settings.antsPerSecond())
-                    .parallel()
-                    .forEach(
-                            (Board.Ant ant) -> {
-                                this.ants.add(ant);
-                                this.subscribers.parallelStream()
-                                        .forEach(
-                                                (Board.Subscriber subscriber) ->
-                                                        subscriber.onNewAntsSpawned(
-                                                                ant.uuid, ant.getCenter()));
-                            });
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException ignore) {
-                break;
+        for (int i = 0; i < count; i++) {
+            final int id = factory.randomAnt();
+            if (this.subscribers.isEmpty()) {
+                continue;
             }
+            final Point2D location = new Point2D.Double(this.ants.x(id), this.ants.y(id));
+            this.subscribers.parallelStream()
+                    .forEach(
+                            (Board.Subscriber subscriber) ->
+                                    subscriber.onNewAntsSpawned(id, location));
         }
-        while (Board.this.isPaused())
-            ;
-        if (this.ants.size() <= Board.this.settings.numberOfAnts()) {
-            spawnAnts();
+    }
+
+    /**
+     * Check if an ant centered on the given point would collude with any obstacles
+     *
+     * @param x The x coordinate of the center of the ant
+     * @param y The y coordinate of the center of the ant
+     * @return True if the ant colludes with an obstacle
+     */
+    boolean isAntColludesWithObstacle(double x, double y) {
+        if (this.antGrid != null) {
+            final int state = this.antGrid.stateAt(x, y);
+            if (state != OccupancyGrid.PARTIAL) {
+                return state == OccupancyGrid.FULL;
+            }
         }
+        return this.obstacleIndex.anyIntersectsEllipse(
+                x, y, this.settings.antsSemiMajorAxis(), this.settings.antsSemiMinorAxis());
     }
 
     /**
-     * Get the area of the board element in the current board builder panel's space
+     * Check if any obstacle intersects the given line segment
      *
-     * @param element The element to get the area. If null, it will return the area of the current
-     *     board builder panel
-     * @return The area of the element in the current board builder panel space
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param walk The walk over the cells crossed by the segment, owned by the calling thread
+     * @return True if an obstacle intersects the segment
      */
-    private Area getArea(IElement element) {
-        if (element == null) {
-            return new Area(this.getBounds());
+    boolean isLineIntersectsObstacle(
+            double x1, double y1, double x2, double y2, CellGrid.Walk walk) {
+        if (this.obstacleGrid != null) {
+            final int state = this.obstacleGrid.traverse(x1, y1, x2, y2, walk);
+            if (state != OccupancyGrid.PARTIAL) {
+                return state == OccupancyGrid.FULL;
+            }
         }
-        return element.getArea(this.getLocation());
+        return this.obstacleIndex.anyIntersectsLine(x1, y1, x2, y2, walk);
     }
 
     /**
-     * Check if the given components colludes on the plan of the current Builder's enclosing
-     * rectangle
+     * Calculate the next position of the given ant without moving it
      *
-     * @param component The first component to check for the collusion
-     * @param other The other component to check for the collusion
-     * @return True if the given two components colludes on the current Builder's enclosing
-     *     rectangle's plan. If components does not collude or the other component is null it
-     *     returns false
+     * @param id The identifier of the ant
+     * @return The point the ant would move to
      */
-    private boolean areComponentsColludes(IElement component, IElement other) {
-        if (other == null) return false;
-        Area componentArea = this.getArea(component);
-        Area sourcePointArea = this.getArea(other);
-        componentArea.intersect(sourcePointArea);
-        return !componentArea.isEmpty();
+    Point2D calculateNewPoint(int id) {
+        final Ant ant = this.borrowAntView();
+        try {
+            ant.bind(id).calculateNewPoint();
+            return new Point2D.Double(ant.nextX, ant.nextY);
+        } finally {
+            this.releaseAntView(ant);
+        }
     }
 
     /**
-     * Check if the given element is inside the board builder panel
+     * Check if the given element is inside the board
      *
      * @param element The board element to check
-     * @return True if the board element is inside the board builder panel
+     * @return True if the board element is inside the board
      */
     private boolean isInside(IElement element) {
-        Area elementArea = this.getArea(element);
-        elementArea.intersect(this.getArea(null));
-        return elementArea.equals(this.getArea(element));
+        return Board.isInside(this.getWidth(), this.getHeight(), element);
+    }
+
+    /**
+     * Check if the given element lies within a board of the given size. Elements are placed in the
+     * local space of the board.
+     *
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param element The board element to check
+     * @return True if the board element is inside the board
+     */
+    private static boolean isInside(double width, double height, IElement element) {
+        final Rectangle2D bounds = element.getBounds2D();
+        return Geometry.rectangleContains(
+                0,
+                0,
+                width,
+                height,
+                bounds.getMinX(),
+                bounds.getMinY(),
+                bounds.getMaxX(),
+                bounds.getMaxY());
+    }
+
+    /**
+     * Check if the given components colludes. Obstacles are rectangles, the source and destination
+     * points are circles and ants are ellipses, ellipses are only checked against rectangles.
+     *
+     * @param component The first component to check for the collusion
+     * @param other The other component to check for the collusion
+     * @return True if the given two components colludes. If one of the components is empty or the
+     *     other component is null it returns false
+     */
+    private static boolean areComponentsColludes(IElement component, IElement other) {
+        if (other == null || component.isEmpty() || other.isEmpty()) {
+            return false;
+        }
+        if (component instanceof Board.Ellipse first && other instanceof Board.Ellipse second) {
+            if (first.semiMajor != first.semiMinor || second.semiMajor != second.semiMinor) {
+                throw new IllegalArgumentException("Only circles can be checked against ellipses");
+            }
+            return Geometry.circlesIntersect(
+                    first.x, first.y, first.semiMajor, second.x, second.y, second.semiMajor);
+        }
+        if (other instanceof Board.Ellipse) {
+            return Board.areComponentsColludes(other, component);
+        }
+        final Rectangle2D bounds = other.getBounds2D();
+        if (component instanceof Board.Ellipse ellipse) {
+            return Geometry.ellipseIntersectsRectangle(
+                    ellipse.x,
+                    ellipse.y,
+                    ellipse.semiMajor,
+                    ellipse.semiMinor,
+                    bounds.getMinX(),
+                    bounds.getMinY(),
+                    bounds.getMaxX(),
+                    bounds.getMaxY());
+        }
+        final Rectangle2D componentBounds = component.getBounds2D();
+        return Geometry.rectanglesIntersect(
+                componentBounds.getMinX(),
+                componentBounds.getMinY(),
+                componentBounds.getMaxX(),
+                componentBounds.getMaxY(),
+                bounds.getMinX(),
+                bounds.getMinY(),
+                bounds.getMaxX(),
+                bounds.getMaxY());
     }
 
     public static class Builder {
@@ -368,9 +861,23 @@ public class Board extends Rectangle implements Runnable {
         }
 
         public static Builder from(File selectedFile) throws IOException {
-            return ObjectMapperFactory.boardBuilderDeserializer()
-                    .readerFor(Builder.class)
-                    .readValue(selectedFile);
+            final SimulationEvents.MapLoad event = new SimulationEvents.MapLoad();
+            event.begin();
+            final Builder builder =
+                    ObjectMapperFactory.boardBuilderDeserializer()
+                            .readerFor(Builder.class)
+                            .readValue(selectedFile);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = selectedFile.getPath();
+                event.obstacles = builder.obstacles == null ? 0 : builder.obstacles.size();
+                if (builder.enclosingRectangle != null) {
+                    event.width = builder.enclosingRectangle.width;
+                    event.height = builder.enclosingRectangle.height;
+                }
+                event.commit();
+            }
+            return builder;
         }
 
         @JsonSetter("enclosing-rectangle")
@@ -579,9 +1086,10 @@ public class Board extends Rectangle implements Runnable {
          * @return True if the board element is inside the board builder panel
          */
         public boolean isInsideOfTheBoard(IElement element) {
-            Area elementArea = this.getArea(element);
-            elementArea.intersect(this.getArea(null));
-            return elementArea.equals(this.getArea(element));
+            return Board.isInside(
+                    this.enclosingRectangle.getWidth(),
+                    this.enclosingRectangle.getHeight(),
+                    element);
         }
 
         /**
@@ -591,11 +1099,38 @@ public class Board extends Rectangle implements Runnable {
          * @return The Board instance to visualise the algorithm
          */
         public Board build(Settings settings) {
+            // Board elements are placed in the local space of the enclosing rectangle
+            final ObstacleIndex<Board.Obstacle> obstacleIndex =
+                    new ObstacleIndex<>(
+                            new Rectangle(this.enclosingRectangle.getSize()), this.obstacles);
+            // Rasterise the obstacles once, for the ray casts and for the positions of the ants
+            OccupancyGrid obstacleGrid = null, antGrid = null;
+            if (settings.occupancyCellSize() > 0) {
+                obstacleGrid =
+                        new OccupancyGrid(
+                                this.obstacles,
+                                this.enclosingRectangle.width,
+                                this.enclosingRectangle.height,
+                                settings.occupancyCellSize(),
+                                0,
+                                0);
+                antGrid =
+                        new OccupancyGrid(
+                                this.obstacles,
+                                this.enclosingRectangle.width,
+                                this.enclosingRectangle.height,
+                                settings.occupancyCellSize(),
+                                settings.antsSemiMajorAxis(),
+                                settings.antsSemiMinorAxis());
+            }
             return new Board(
                     this.enclosingRectangle,
                     this.sourcePoint,
                     this.destinationPoint,
                     this.obstacles,
+                    obstacleIndex,
+                    obstacleGrid,
+                    antGrid,
                     settings);
         }
 
@@ -714,11 +1249,7 @@ public class Board extends Rectangle implements Runnable {
          *     returns false
          */
         private boolean areComponentsColludes(IElement component, IElement other) {
-            if (other == null) return false;
-            Area componentArea = this.getArea(component);
-            Area sourcePointArea = this.getArea(other);
-            componentArea.intersect(sourcePointArea);
-            return !componentArea.isEmpty();
+            return Board.areComponentsColludes(component, other);
         }
     }
 
@@ -727,18 +1258,18 @@ public class Board extends Rectangle implements Runnable {
         /**
          * Method called on ant moved
          *
-         * @param uuid THe unique identifier of the ant to move
+         * @param id The unique identifier of the ant to move
          * @param to The new position of the ant
          */
-        void onAntMoved(UUID uuid, Point2D to);
+        void onAntMoved(int id, Point2D to);
 
         /**
          * The method called when a new ant is spawned
          *
-         * @param uuid The unique identifier of the spawned ant
+         * @param id The unique identifier of the spawned ant
          * @param location The location of the spawned ant
          */
-        void onNewAntsSpawned(UUID uuid, Point2D location);
+        void onNewAntsSpawned(int id, Point2D location);
 
         /**
          * Method called when the intensity of a pheromone changed
@@ -761,86 +1292,271 @@ public class Board extends Rectangle implements Runnable {
         void onUnsubscribeFailed(String message);
     }
 
-    public static final class ElementColludesWithOtherElementsOfBoardException extends Exception {
-        public ElementColludesWithOtherElementsOfBoardException(
-                Point topLeftCorner, int radius, BoardElementType boardElementType) {
-            super(
-                    String.format(
-                            "Element with top left corner (%d,%d) and radius %d colludes"
-                                    + " with %s",
-                            topLeftCorner.x, topLeftCorner.y, radius, boardElementType.toString()));
-        }
+    public interface FrameSubscriber {
+
+        /**
+         * Method called at the end of each tick with all the changes of the tick. The subscriber
+         * calls {@link Board.Frame#release()} once done with the frame, so the board can reuse it.
+         *
+         * @param frame The changes of the tick
+         */
+        void onFrame(Board.Frame frame);
     }
 
-    public static final class ElementOutOfBoundsException extends Exception {
-        public ElementOutOfBoundsException(Point topLeftCorner, double radius) {
-            super(
-                    String.format(
-                            "Element with topLeftCorner: (%d,%d) and radius: %f out of"
-                                    + " bounds of the board builder panel",
-                            topLeftCorner.x, topLeftCorner.y, radius));
+    /**
+     * All the changes of a tick. As every ant moves at each tick, a frame contains the position of
+     * all ants, indexed by their identifier. The ants spawned during the tick are the ones with an
+     * identifier greater than or equal to the first spawned ant. Only the pheromone cells whose
+     * intensity changed during the tick are included, with their new intensity.
+     *
+     * <p>The arrays of the frames are recycled: a subscriber done with a frame gives it back with
+     * {@link #release()}, and once all the subscribers released it the board fills it again at a
+     * later tick. A frame is never modified before being released by all its subscribers, so a
+     * subscriber may keep a frame as long as it does not release it.
+     */
+    public static final class Frame {
+
+        /*
+           The number of released frames kept for the next ticks, the renderer holds one frame and
+           the exchange another while the board fills the next one
+        */
+        private static final int POOL_SIZE = 3;
+
+        private final ArrayDeque<Board.Frame> pool;
+        private final int pheromoneCellSize;
+        private final int pheromoneColumns;
+        private long tick;
+        private double[] antXs;
+        private double[] antYs;
+        private int antCount;
+        private int firstSpawnedAnt;
+        private int[] pheromoneCells;
+        private float[] pheromoneIntensities;
+        private int pheromoneCount;
+        /*
+           The number of holders of the frame, the board and the subscribers which did not release
+           it yet. Guarded by the lock of the pool
+        */
+        private int references;
+
+        private Frame(ArrayDeque<Board.Frame> pool, int pheromoneCellSize, int pheromoneColumns) {
+            this.pool = pool;
+            this.pheromoneCellSize = pheromoneCellSize;
+            this.pheromoneColumns = pheromoneColumns;
+            this.antXs = new double[0];
+            this.antYs = new double[0];
+            this.pheromoneCells = new int[0];
+            this.pheromoneIntensities = new float[0];
+        }
+
+        /**
+         * Make sure the arrays of the frame can hold the changes of a tick, and make the board the
+         * only holder of the frame
+         *
+         * @param ants The number of ants to hold
+         * @param pheromones The number of changed pheromone cells to hold
+         */
+        private void reserve(int ants, int pheromones) {
+            if (this.antXs.length < ants) {
+                this.antXs = new double[ants];
+                this.antYs = new double[ants];
+            }
+            if (this.pheromoneCells.length < pheromones) {
+                final int capacity = Math.max(pheromones, 2 * this.pheromoneCells.length);
+                this.pheromoneCells = new int[capacity];
+                this.pheromoneIntensities = new float[capacity];
+            }
+            synchronized (this.pool) {
+                this.references = 1;
+            }
+        }
+
+        /** Add a holder of the frame, before delivering it to a subscriber */
+        private void retain() {
+            synchronized (this.pool) {
+                this.references++;
+            }
+        }
+
+        /**
+         * Give the frame back to the board. Must be called at most once by each subscriber, once it
+         * no longer reads the frame. Frames which are never released are simply not reused.
+         */
+        public void release() {
+            synchronized (this.pool) {
+                if (--this.references == 0 && this.pool.size() < POOL_SIZE) {
+                    this.pool.push(this);
+                }
+            }
         }
-    }
 
-    private class Pheromone extends Point2D.Double {
-        private int intensity;
-        private long lastUpdate;
+        /**
+         * Get the tick of the frame
+         *
+         * @return The index of the tick
+         */
+        public long getTick() {
+            return this.tick;
+        }
 
-        private Pheromone(Point2D position, int intensity) {
-            super(position.getX(), position.getY());
-            this.intensity = intensity;
-            this.update();
+        /**
+         * Get the number of ants on the board
+         *
+         * @return The number of ants
+         */
+        public int getAntCount() {
+            return this.antCount;
         }
 
-        private Pheromone(Point position) {
-            this(position, 1);
+        /**
+         * Get the x coordinate of the center of the given ant
+         *
+         * @param id The identifier of the ant
+         * @return The x coordinate of the center of the ant
+         */
+        public double getAntX(int id) {
+            return this.antXs[id];
         }
 
-        private void updateIntensity() {
-            this.updateIntensity(1);
+        /**
+         * Get the y coordinate of the center of the given ant
+         *
+         * @param id The identifier of the ant
+         * @return The y coordinate of the center of the ant
+         */
+        public double getAntY(int id) {
+            return this.antYs[id];
         }
 
-        private Point2D getPosition() {
-            return new Point2D.Double(this.x, this.y);
+        /**
+         * Get the identifier of the first ant spawned during the tick
+         *
+         * @return The identifier of the first spawned ant, equals to the number of ants if no ant
+         *     spawned
+         */
+        public int getFirstSpawnedAnt() {
+            return this.firstSpawnedAnt;
         }
 
         /**
-         * Updates the current pheromone's intensity by given delta
+         * Get the number of pheromone cells whose intensity changed during the tick
          *
-         * @param delta The value to update the intensity with
+         * @return The number of changed pheromone cells
          */
-        private synchronized void updateIntensity(int delta) {
-            this.intensity += delta;
-            // Notify all subscribers of the board
-            Board.this.subscribers.parallelStream()
-                    .forEach(
-                            (Board.Subscriber s) -> {
-                                s.onPheromoneIntensityChanged(this.getPosition(), delta);
-                            });
-            this.update();
+        public int getPheromoneCount() {
+            return this.pheromoneCount;
+        }
+
+        /**
+         * Get the index of the given changed pheromone cell in the pheromone grid
+         *
+         * @param i The index of the change in the frame
+         * @return The index of the cell
+         */
+        public int getPheromoneCell(int i) {
+            return this.pheromoneCells[i];
         }
 
-        /** Updates the last update time */
-        private void update() {
-            this.lastUpdate = System.currentTimeMillis();
+        /**
+         * Get the x coordinate of the center of the given changed pheromone cell
+         *
+         * @param i The index of the change in the frame
+         * @return The x coordinate of the center of the cell
+         */
+        public double getPheromoneX(int i) {
+            return (this.pheromoneCells[i] % this.pheromoneColumns + 0.5) * this.pheromoneCellSize;
+        }
+
+        /**
+         * Get the y coordinate of the center of the given changed pheromone cell
+         *
+         * @param i The index of the change in the frame
+         * @return The y coordinate of the center of the cell
+         */
+        public double getPheromoneY(int i) {
+            return (this.pheromoneCells[i] / this.pheromoneColumns + 0.5) * this.pheromoneCellSize;
+        }
+
+        /**
+         * Get the new intensity of the given changed pheromone cell
+         *
+         * @param i The index of the change in the frame
+         * @return The intensity of the pheromone, 0 if it is evaporated
+         */
+        public float getPheromoneIntensity(int i) {
+            return this.pheromoneIntensities[i];
+        }
+
+        /**
+         * Get the length of the side of a pheromone cell
+         *
+         * @return The size of a pheromone cell
+         */
+        public int getPheromoneCellSize() {
+            return this.pheromoneCellSize;
+        }
+    }
+
+    /**
+     * Convergence statistics of a simulation. An arrival is an ant reaching the destination point,
+     * a round trip is an ant coming back to the source point after an arrival. Path lengths are the
+     * sum of the lengths of the completed paths.
+     *
+     * @param tick The number of executed ticks
+     * @param ants The number of ants on the board
+     * @param arrivals The number of arrivals to the destination point
+     * @param roundTrips The number of returns to the source point
+     * @param outboundPathLength The total length of the paths from the source to the destination
+     * @param returnPathLength The total length of the paths from the destination to the source
+     * @param shortestOutboundPathLength The length of the shortest path from the source to the
+     *     destination, 0 if no ant arrived yet
+     */
+    public record Statistics(
+            long tick,
+            int ants,
+            long arrivals,
+            long roundTrips,
+            double outboundPathLength,
+            double returnPathLength,
+            double shortestOutboundPathLength) {
+
+        /**
+         * Get the mean length of the paths from the source to the destination point
+         *
+         * @return The mean outbound path length, 0 if no ant arrived yet
+         */
+        public double meanOutboundPathLength() {
+            return this.arrivals == 0 ? 0 : this.outboundPathLength / this.arrivals;
         }
 
         /**
-         * Checks if the current pheromone can evaporate. A pheromone can evaporate if its intensity
-         * is bigger than 0 and if its last updated time is less than the given evaporation timeout
+         * Get the mean length of the paths from the destination to the source point
          *
-         * @return True if the last updated time of the current pheromone is less than the given
-         *     evaporation timeout
+         * @return The mean return path length, 0 if no ant returned yet
          */
-        public boolean canEvaporate() {
-            return (this.intensity > 0)
-                    && (System.currentTimeMillis() - this.lastUpdate)
-                            >= Board.this.settings.pheromoneIntensityTimeoutMs();
+        public double meanReturnPathLength() {
+            return this.roundTrips == 0 ? 0 : this.returnPathLength / this.roundTrips;
         }
+    }
 
-        /** Decrease the current pheromone's intensity by 1 */
-        private void evaporate() {
-            this.updateIntensity(-1);
+    public static final class ElementColludesWithOtherElementsOfBoardException extends Exception {
+        public ElementColludesWithOtherElementsOfBoardException(
+                Point topLeftCorner, int radius, BoardElementType boardElementType) {
+            super(
+                    String.format(
+                            "Element with top left corner (%d,%d) and radius %d colludes"
+                                    + " with %s",
+                            topLeftCorner.x, topLeftCorner.y, radius, boardElementType.toString()));
+        }
+    }
+
+    public static final class ElementOutOfBoundsException extends Exception {
+        public ElementOutOfBoundsException(Point topLeftCorner, double radius) {
+            super(
+                    String.format(
+                            "Element with topLeftCorner: (%d,%d) and radius: %f out of"
+                                    + " bounds of the board builder panel",
+                            topLeftCorner.x, topLeftCorner.y, radius));
         }
     }
 
@@ -848,176 +1564,253 @@ public class Board extends Rectangle implements Runnable {
         /**
          * Creates an ant randomly placed around the source point
          *
-         * @return The Ant instance
+         * @return The identifier of the new ant
          */
-        private Ant randomAnt() {
-            final double sideX = Board.r.nextDouble(-1, 1.01), sideY = Board.r.nextDouble(-1, 1.01);
+        private int randomAnt() {
+            final SplittableRandom random = Board.this.spawnRandom;
+            final double sideX = random.nextDouble(-1, 1.01), sideY = random.nextDouble(-1, 1.01);
             final double
                     x =
                             sideX
                                             * (Board.this.settings.sourcePointRadius()
                                                     + Board.this.settings.antsSemiMajorAxis())
-                                    + Board.this.getSourcePoint().getCenter().getX(),
+                                    + Board.this.getSourcePoint().getCenterX(),
                     y =
                             sideY
                                             * (Board.this.settings.sourcePointRadius()
                                                     + Board.this.settings.antsSemiMinorAxis())
-                                    + Board.this.getSourcePoint().getCenter().getY();
-            return new Ant(
-                    x,
-                    y,
-                    Board.this.settings.antsSemiMinorAxis(),
-                    Board.this.settings.antsSemiMajorAxis());
+                                    + Board.this.getSourcePoint().getCenterY();
+            /* By creation the ant is not returning
+               as ants are spawning from source point
+            */
+            return Board.this.ants.add(x, y, random.nextLong());
         }
     }
 
-    private class Ant extends EllipticalIElement {
+    /**
+     * View of an ant of the population. The view is bound to one ant at a time, it loads the state
+     * of the ant from the population and writes it back when the ant moves, so the same instance
+     * can be reused for all ants of a chunk.
+     */
+    private class Ant {
 
+        /*
+           The unique identifier of the ant bound to the view. These identifiers will also be used
+           to identify ants on the client side
+        */
+        private int id;
+        /*
+           The coordinates of the center of the ant
+        */
+        private double x, y;
         /*
            A variable indicates that if the current Ant is returning to the source point
         */
         private boolean returning;
+        /*
+           The tick in which the ant is moving
+        */
+        private long tick;
+        /*
+           The point computed by the last call to calculateNewPoint
+        */
+        private double nextX, nextY;
 
         /*
-           The unique identifier of the ant object. These uuids will also be used to identify ants
-           on the client side
+           The pheromones sensed by the ant during the current step, with their distance and
+           intensity. The arrays are reused from one step to the next, and only grow when more
+           pheromones are sensed
         */
-        private final UUID uuid;
+        private int[] candidates = new int[16];
+        private double[] candidateDistances = new double[16];
+        private float[] candidateIntensities = new float[16];
+        private int[] candidateBuckets = new int[16];
+        private int candidateCount;
         /*
-           Contains the distance of the current Ant to each pheromone.
-           This is mainly updated automatically each time there's a new pheromone introduced and not the intensity
-           of an existing pheromone is changed
+           True if no obstacle is near the sensing disk of the ant during the current step, the
+           pheromones sensed by the ant are then reachable without casting a ray
         */
-        private volatile Map<Board.Pheromone, java.lang.Double> distancesToPheromones;
+        private boolean clearSight;
+        /*
+           The walk over the cells crossed by the rays cast by the view, reset for each ray
+        */
+        private final CellGrid.Walk walk = new CellGrid.Walk();
+        /*
+           The sums of the intensities and distances, and the number of candidates of each bucket
+           of the cluster selection. Buckets are reset after each use
+        */
+        private final double[] bucketIntensities;
+        private final double[] bucketDistances;
+        private final int[] bucketSizes;
+        private final IntConsumer senseCell = this::sensePheromone;
+
+        /** Creates an unbound view */
+        private Ant() {
+            final int clusters = Math.max(1, Board.this.settings.numberOfClusters());
+            this.bucketIntensities = new double[clusters];
+            this.bucketDistances = new double[clusters];
+            this.bucketSizes = new int[clusters];
+        }
 
         /**
-         * Creates an elliptical board element with given parameters
+         * Bind the current view to the given ant
          *
-         * @param x The x coordinate of the center of the ellipse
-         * @param y The y coordinate of the center of the ellipse
-         * @param semiMinor The length of the semi minor axis of the ellipse
-         * @param semiMajor The length of the semi major axis of the ellipse
+         * @param id The identifier of the ant
+         * @return The current view
          */
-        private Ant(double x, double y, double semiMinor, double semiMajor) {
-            super(x, y, semiMinor, semiMajor);
-            this.uuid = UUID.randomUUID();
-            this.distancesToPheromones = new ConcurrentHashMap<>();
-            // Add distances for all existing pheromones at the moment of the Ant's creation
-            Board.this.pheromones.values().parallelStream()
-                    .forEach(this::calculateDistanceToPheromone);
-            /* By creation the retuning variable is set to false
-               as ants are spawning from source point
-            */
-            this.returning = false;
+        private Ant bind(int id) {
+            this.id = id;
+            this.x = Board.this.ants.x(id);
+            this.y = Board.this.ants.y(id);
+            this.returning = Board.this.ants.isReturning(id);
+            this.tick = Board.this.engine.getTick();
+            return this;
+        }
+
+        /**
+         * Collect the pheromones around the current ant which are on the way to its target point
+         * and reachable, with their distance to the ant
+         */
+        private void sensePheromones() {
+            this.candidateCount = 0;
+            final double radius = Board.this.settings.antSensingRadius();
+            // The rays to the sensed pheromones stay inside the bounds of the sensing disk
+            this.clearSight =
+                    Board.this.obstacleGrid != null
+                            && Board.this.obstacleGrid.isFree(
+                                    this.x - radius,
+                                    this.y - radius,
+                                    this.x + radius,
+                                    this.y + radius);
+            Board.this.pheromones.forEachLiveCellInRadius(
+                    this.x, this.y, radius, this.tick, this.senseCell);
         }
 
         /**
-         * Calculates the distance between the given pheromone and the current Ant instance
+         * Add the given pheromone to the candidates if it is on the way and reachable
          *
-         * @param pheromone The pheromone to calculate the distance to
-         * @return The distance between the current ant and the given pheromone
+         * @param pheromone The cell of the pheromone
          */
-        private Optional<java.lang.Double> calculateDistanceToPheromone(Board.Pheromone pheromone) {
-            // Calculate the distance if the given pheromone is reachable for the current ant
-            if (this.isPheromoneReachable(pheromone)) {
-                // Check if the pheromone exists in the given hash map
-                if (this.distancesToPheromones.get(pheromone) == null) {
-                    /*
-                        If the given pheromone is not exists on the hash table,
-                        this is a newly added pheromone
-                    */
-                    final double distance = this.getCenter().distance(pheromone.getPosition());
-                    this.distancesToPheromones.put(pheromone, Math.abs(distance));
-                }
-                // The pheromone is exists in the distance map, just return the distance
-                return Optional.of(this.distancesToPheromones.get(pheromone));
+        private void sensePheromone(int pheromone) {
+            if (!this.isPheromoneOnTheWay(pheromone) || !this.isPheromoneReachable(pheromone)) {
+                return;
             }
-            return Optional.empty();
+            if (this.candidateCount == this.candidates.length) {
+                final int capacity = 2 * this.candidates.length;
+                this.candidates = Arrays.copyOf(this.candidates, capacity);
+                this.candidateDistances = Arrays.copyOf(this.candidateDistances, capacity);
+                this.candidateIntensities = Arrays.copyOf(this.candidateIntensities, capacity);
+                this.candidateBuckets = Arrays.copyOf(this.candidateBuckets, capacity);
+            }
+            this.candidates[this.candidateCount] = pheromone;
+            this.candidateDistances[this.candidateCount] = this.distanceToPheromone(pheromone);
+            this.candidateIntensities[this.candidateCount] =
+                    Board.this.pheromones.intensity(pheromone, this.tick);
+            this.candidateCount++;
         }
 
         /**
-         * Locate the current ant instance for the target point (if returning set to false, the
-         * target point will be the destination point, and source point if not)
+         * Get the x coordinate of the target point of the current ant (the destination point if the
+         * ant is not returning, the source point if it is)
          *
-         * @return A pair containing 2 integers indicating the side of the target point for the
-         *     current Ant instance. The first element of the pair indicates the position for the Ox
-         *     axis, the second element indicates for the Oy axis. The convention for the sides is
-         *     as follows: -1 := On the negative side of the origin 1 := On the positive side of the
-         *     origin 0 := On the same axis as the origin Above origin will be center of the current
-         *     Ant instance
+         * @return The x coordinate of the center of the target point
          */
-        private Pair<java.lang.Double, java.lang.Double> locationTargetPoint() {
-            if (this.returning) {
-                return this.locationTargetPoint(Board.this.sourcePoint.getCenter());
-            }
-            return this.locationTargetPoint(Board.this.destinationPoint.getCenter());
+        private double targetX() {
+            return (this.returning ? Board.this.sourcePoint : Board.this.destinationPoint)
+                    .getCenterX();
         }
 
         /**
-         * Same as the locationTargetPoint() but with the given target point
+         * Get the y coordinate of the target point of the current ant
          *
-         * @param targetPoint The target point to calculate the position of the current ant
-         * @return A pair containing 2 integers indicating the side of the target point for the
-         *     current Ant instance. The first element of the pair indicates the position for the Ox
-         *     axis, the second element indicates for the Oy axis. The convention for the sides is
-         *     as follows: -1 := On the negative side of the origin 1 := On the positive side of the
-         *     origin 0 := On the same axis as the origin Above origin will be center of the current
-         *     Ant instance
-         * @see Board.Ant#locationTargetPoint()
+         * @return The y coordinate of the center of the target point
+         * @see Board.Ant#targetX()
          */
-        private Pair<java.lang.Double, java.lang.Double> locationTargetPoint(Point2D targetPoint) {
-            return new Pair<>(
-                    Math.signum(targetPoint.getX() - this.getX()),
-                    Math.signum(this.getY() - targetPoint.getY()));
+        private double targetY() {
+            return (this.returning ? Board.this.sourcePoint : Board.this.destinationPoint)
+                    .getCenterY();
+        }
+
+        /**
+         * Check if two points are located on the same side of the current ant on both axes. The
+         * side on an axis is the sign of the difference between the coordinate of the point and the
+         * coordinate of the center of the ant, 0 meaning that they are on the same axis.
+         *
+         * @param x1 The x coordinate of the first point
+         * @param y1 The y coordinate of the first point
+         * @param x2 The x coordinate of the second point
+         * @param y2 The y coordinate of the second point
+         * @return True if both points are on the same side of the ant on the Ox and Oy axes
+         */
+        private boolean isOnTheSameSide(double x1, double y1, double x2, double y2) {
+            return Math.signum(x1 - this.x) == Math.signum(x2 - this.x)
+                    && Math.signum(this.y - y1) == Math.signum(this.y - y2);
         }
 
         /**
          * Checks if the given pheromone is reachable for the current ant. A pheromone is considered
          * as reachable, if any only if there is not an obstacle insersects with the line from the
-         * current ant's center to the given pheromone's position
+         * current ant's center to the given pheromone's position. No ray is cast if no obstacle is
+         * near the sensing disk of the ant.
          *
-         * @param pheromone The pheromone to check
+         * @param pheromone The cell of the pheromone to check
          * @return True if the given pheromone is reachable for the current ant, false if not
          */
-        private boolean isPheromoneReachable(Board.Pheromone pheromone) {
-            final Line2D vector = new Line2D.Double(this.getCenter(), pheromone.getPosition());
-            return Board.this.obstacles.parallelStream()
-                    .noneMatch(obstacle -> obstacle.intersectsLine(vector));
+        private boolean isPheromoneReachable(int pheromone) {
+            return this.clearSight
+                    || !Board.this.isLineIntersectsObstacle(
+                            this.x,
+                            this.y,
+                            Board.this.pheromones.centerX(pheromone),
+                            Board.this.pheromones.centerY(pheromone),
+                            this.walk);
         }
 
         /** Move ant automatically to the calculated point */
         private void move() {
-            Point2D to;
-
-            to = this.calculateNewPoint();
-            this.moveTo(to);
+            this.calculateNewPoint();
+            this.moveTo(this.nextX, this.nextY);
         }
 
         /**
-         * ² Check if an ant colludes with any obstacles
+         * Moves the given ant to the given point if possible
          *
-         * @return True if the given ant colludes with an obstacle
+         * @param x The x coordinate of the new position of the ant
+         * @param y The y coordinate of the new position of the ant
          */
-        private boolean isColludesWithObstacle() {
-            return Board.this.obstacles.parallelStream()
-                    .anyMatch((Board.Obstacle o) -> Board.this.areComponentsColludes(o, this));
+        private void moveTo(double x, double y) {
+            this.x = x;
+            this.y = y;
+            Board.this.ants.moveTo(this.id, this.x, this.y);
+            // Update all subscribers
+            if (!Board.this.subscribers.isEmpty()) {
+                final Point2D to = new Point2D.Double(x, y);
+                Board.this.subscribers.parallelStream().forEach(s -> s.onAntMoved(this.id, to));
+            }
+            final boolean wasReturning = this.returning;
+            this.updateReturning();
+            if (wasReturning != this.returning) {
+                this.completePath(wasReturning);
+            }
+            Board.this.ants.setReturning(this.id, this.returning);
         }
 
         /**
-         * Moves the given ant to the given point if possible
+         * Record the path completed by the current ant
          *
-         * @param to The new position of the ant
+         * @param wasReturning True if the ant arrived back to the source point, false if it arrived
+         *     to the destination point
          */
-        private void moveTo(Point2D to) {
-            this.x = to.getX();
-            this.y = to.getY();
-            // TODO: Add pheromones on the line
-            // If the ant still not arrived to the destination point, add a pheromone
-            Board.this.addPheromone(this.getCenter(), 1);
-            // Update all subscribers
-            Board.this.subscribers.parallelStream()
-                    .forEach(s -> s.onAntMoved(this.uuid, this.getCenter()));
-            this.updateReturning();
+        private void completePath(boolean wasReturning) {
+            final double length = Board.this.ants.completePath(this.id);
+            if (wasReturning) {
+                Board.this.roundTrips.increment();
+                Board.this.returnPathLengths.add(length);
+                return;
+            }
+            Board.this.arrivals.increment();
+            Board.this.outboundPathLengths.add(length);
+            Board.this.shortestOutboundPathLength.accumulate(length);
         }
 
         private void updateReturning() {
@@ -1028,234 +1821,260 @@ public class Board extends Rectangle implements Runnable {
                    back to the source point
                 */
                 this.returning =
-                        Math.abs(this.getCenter().distance(Board.this.sourcePoint.getCenter()))
+                        Point2D.distance(
+                                        this.x,
+                                        this.y,
+                                        Board.this.sourcePoint.getCenterX(),
+                                        Board.this.sourcePoint.getCenterY())
                                 >= Board.this.settings.sourcePointRadius();
                 return;
             }
             this.returning =
-                    Math.abs(this.getCenter().distance(Board.this.destinationPoint.getCenter()))
+                    Point2D.distance(
+                                    this.x,
+                                    this.y,
+                                    Board.this.destinationPoint.getCenterX(),
+                                    Board.this.destinationPoint.getCenterY())
                             < Board.this.settings.destinationPointRadius();
         }
 
         /**
          * Verify if we can move the given ant to the given point
          *
-         * @param to The point to move the ant
+         * @param x The x coordinate of the point to move the ant
+         * @param y The y coordinate of the point to move the ant
          * @return True if the ant can be moved to the given point, false if not
          */
-        private synchronized boolean canMove(Point2D to) {
-            final Ant aux =
-                    new Ant(
-                            this.getX() + to.getX(),
-                            this.getY() + to.getY(),
-                            this.semiMinor,
-                            this.semiMajor);
+        private boolean canMove(double x, double y) {
             // TODO: Check why Board.this.isInside(aux) keeps failing
-            return /*Board.this.isInside(aux) &&*/ !aux.isColludesWithObstacle();
+            return !Board.this.isAntColludesWithObstacle(x, y);
         }
 
         /**
          * Calculate distance between given pheromone and the current ant
          *
-         * @param pheromone The pheromone to calculate the distance to
+         * @param pheromone The cell of the pheromone to calculate the distance to
          * @return The distance between the given pheromone and the current ant
          */
-        private double distanceToPheromone(Board.Pheromone pheromone) {
-            return this.getCenter().distance(pheromone.getPosition());
+        private double distanceToPheromone(int pheromone) {
+            return Point2D.distance(
+                    this.x,
+                    this.y,
+                    Board.this.pheromones.centerX(pheromone),
+                    Board.this.pheromones.centerY(pheromone));
         }
 
         /**
-         * Calculate the threshold value for the given set of pheromones. The threshold value is
-         * used for dispatching pheromones into different clusters. Can be imaginable the length of
-         * the interval for the current cluster.
+         * Select the pheromone to move to among the candidates. The candidates are dispatched by
+         * distance into as many buckets as the number of clusters, the bucket with the best ratio
+         * of total intensity to total distance is kept, and the selection is repeated on the kept
+         * bucket until a single pheromone remains or all remaining pheromones fall into the same
+         * bucket.
          *
-         * @param pheromones The pheromones to calculate the threshold from
-         * @return The threshold value for the given set of pheromones
+         * @return The cell of the selected pheromone, -1 if there's no candidate
          */
-        private double calculateThreshold(final Set<Pheromone> pheromones) {
-            final List<java.lang.Double> distances =
-                    pheromones.parallelStream().map(this.distancesToPheromones::get).toList();
-            double min = distances.get(0), max = distances.get(0);
-            for (int i = 1; i < distances.size(); i++) {
-                final double distance = distances.get(i);
-                if (distance < min) {
-                    min = distance;
-                    continue;
+        private int selectPheromone() {
+            final int clusters = this.bucketSizes.length;
+            while (this.candidateCount > 1) {
+                double min = this.candidateDistances[0], max = min;
+                for (int i = 1; i < this.candidateCount; i++) {
+                    min = Math.min(min, this.candidateDistances[i]);
+                    max = Math.max(max, this.candidateDistances[i]);
                 }
-                if (max < distance) {
-                    max = distance;
+                // The length of the distance interval covered by a bucket
+                final double threshold = (max - min) / clusters;
+                if (threshold == 0) {
+                    // All pheromones are at the same distance, they are too close
+                    break;
+                }
+                int nonEmpty = 0;
+                for (int i = 0; i < this.candidateCount; i++) {
+                    final int bucket =
+                            Math.min(
+                                    clusters - 1,
+                                    (int) ((this.candidateDistances[i] - min) / threshold));
+                    this.candidateBuckets[i] = bucket;
+                    if (this.bucketSizes[bucket]++ == 0) {
+                        nonEmpty++;
+                    }
+                    this.bucketIntensities[bucket] += this.candidateIntensities[i];
+                    this.bucketDistances[bucket] += this.candidateDistances[i];
+                }
+                int best = this.candidateBuckets[0];
+                double bestScore = this.bucketIntensities[best] / this.bucketDistances[best];
+                for (int i = 1; i < this.candidateCount; i++) {
+                    final int bucket = this.candidateBuckets[i];
+                    final double score =
+                            this.bucketIntensities[bucket] / this.bucketDistances[bucket];
+                    if (score > bestScore || (score == bestScore && bucket < best)) {
+                        best = bucket;
+                        bestScore = score;
+                    }
+                }
+                // Keep the candidates of the best bucket and reset the used buckets
+                int kept = 0;
+                for (int i = 0; i < this.candidateCount; i++) {
+                    final int bucket = this.candidateBuckets[i];
+                    this.bucketSizes[bucket] = 0;
+                    this.bucketIntensities[bucket] = 0;
+                    this.bucketDistances[bucket] = 0;
+                    if (bucket == best) {
+                        this.candidates[kept] = this.candidates[i];
+                        this.candidateDistances[kept] = this.candidateDistances[i];
+                        this.candidateIntensities[kept] = this.candidateIntensities[i];
+                        kept++;
+                    }
+                }
+                this.candidateCount = kept;
+                if (nonEmpty == 1) {
+                    // If there's only one non-empty cluster, the pheromones are too close
+                    break;
                 }
             }
-            return (max - min) / Board.this.settings.numberOfClusters();
+            return this.candidateCount > 0 ? this.candidates[0] : -1;
         }
 
         /**
-         * Create clusters from given list of pheromones and the given threshold
+         * Calculate a random point in the direction of the given target point where the ant can
+         * move, and store it as the next point of the ant. The ant stays in place if none of the
+         * drawn points is free.
          *
-         * @param pheromones The set of pheromones used for creating clusters
-         * @param threshold The cluster threshold
-         * @return A list of clusters
+         * @param targetX The x coordinate of the target point
+         * @param targetY The y coordinate of the target point
          */
-        private List<Set<Board.Pheromone>> createClusters(
-                Set<Board.Pheromone> pheromones, final double threshold) {
-            final List<Set<Board.Pheromone>> clusters =
-                    new ArrayList<>(Board.this.settings.numberOfClusters());
-            for (int i = 0; i < Board.this.settings.numberOfClusters(); i++) {
-                clusters.add(new HashSet<>());
-            }
-            for (Board.Pheromone pheromone : pheromones) {
-                final double d = this.distancesToPheromones.get(pheromone);
-                final int index = (int) (d / threshold) % clusters.size();
-                clusters.get(index).add(pheromone);
-            }
-            return clusters;
-        }
-
-        /**
-         * Method chooses the best cluster from the given list of clusters
-         *
-         * @param clusters The set of clusters to choose
-         * @return The best cluster from the list of clusters,
-         */
-        private Set<Board.Pheromone> chooseCluster(final List<Set<Board.Pheromone>> clusters) {
-            int maxIndex = 0;
-            final Function<Integer, java.lang.Double> calculateMaxCoefficient =
-                    (Integer index) -> {
-                        final Set<Board.Pheromone> pheromones = clusters.get(index);
-                        final List<Pair<Integer, java.lang.Double>> intensityDistancePairs =
-                                pheromones.parallelStream()
-                                        .map(
-                                                (Board.Pheromone p) ->
-                                                        new Pair<>(
-                                                                p.intensity,
-                                                                this.distancesToPheromones.get(p)))
-                                        .toList();
-                        Pair<Integer, java.lang.Double> cid =
-                                intensityDistancePairs.parallelStream()
-                                        .reduce(
-                                                new Pair<>(0, 0.),
-                                                (a, b) ->
-                                                        new Pair<>(
-                                                                a.getFirst() + b.getFirst(),
-                                                                a.getSecond() + b.getSecond()));
-
-                        return cid.getFirst() / cid.getSecond();
-                    };
-            double maxCoefficient = calculateMaxCoefficient.apply(maxIndex);
-            for (int i = 1; i < clusters.size(); i++) {
-                if (maxCoefficient < calculateMaxCoefficient.apply(i)) {
-                    maxIndex = i;
+        private void randomPointTowards(double targetX, double targetY) {
+            final double side = Math.signum(targetX - this.x);
+            final AntPopulation random = Board.this.ants;
+            // Draw points until one of them is free of obstacles
+            for (int draw = 0; draw < MAX_DRAWS; draw++) {
+                double x = random.nextDouble(this.id, -1, 1);
+                final double y = random.nextDouble(this.id, -1, 1);
+                if (side < 0) {
+                    x = random.nextDouble(this.id, side, 0);
+                }
+                if (side > 0) {
+                    x = random.nextDouble(this.id, 0, side);
+                }
+                this.nextX = this.x + x;
+                this.nextY = this.y + (-1 * y);
+                if (this.canMove(this.nextX, this.nextY)) {
+                    return;
                 }
             }
-            return clusters.get(maxIndex);
+            // The ant is surrounded by obstacles, it stays in place
+            this.nextX = this.x;
+            this.nextY = this.y;
         }
 
         /**
-         * Calculate a random point in direction to the source point
+         * Get the distance field of the target point of the current ant
          *
-         * @return Calculated random point for in the direction of the destination point
+         * @return The distance field to the target point, null if the distance fields are disabled
          */
-        private Point2D getRandomPoint(Point2D targetPoint) {
-            final Pair<java.lang.Double, java.lang.Double> sides =
-                    this.locationTargetPoint(targetPoint);
-            double x = Board.r.nextDouble(-1, 1), y = Board.r.nextDouble(-1, 1);
-            if (sides.getFirst() < 0) {
-                x = Board.r.nextDouble(sides.getFirst(), 0);
-            }
-            if (sides.getFirst() > 0) {
-                x = Board.r.nextDouble(0, sides.getFirst());
-            }
-            final Point2D result = new Point2D.Double(this.x + x, this.y + (-1 * y));
-            if (this.canMove(result)) {
-                return result;
-            }
-            return getRandomPoint(targetPoint);
+        private DistanceField field() {
+            return this.returning ? Board.this.toSource : Board.this.toDestination;
         }
 
-        private Point2D getPointToTarget(double step, Point2D targetPoint) {
-            double dx = targetPoint.getX() - this.getX();
-            double dy = targetPoint.getY() - this.getY();
-            return new Point2D.Double(this.x + step * dx, this.y + step * dy);
+        /**
+         * Calculate the next point of an ant which does not sense any pheromone. The ant follows
+         * the gradient of the distance field of its target if there's one, and wanders randomly in
+         * the direction of its target otherwise.
+         */
+        private void wander() {
+            final DistanceField field = this.field();
+            final int cell = field == null ? -1 : field.descend(this.x, this.y);
+            if (cell < 0) {
+                this.randomPointTowards(this.targetX(), this.targetY());
+                return;
+            }
+            this.randomPointAlong(field.centerX(cell) - this.x, field.centerY(cell) - this.y);
         }
 
-        private Point2D getPointToTarget(Point2D targetPoint) {
-            // TODO: Move step size to settings
-            return this.getPointToTarget(0.01, targetPoint);
+        /**
+         * Calculate a random point around the given direction where the ant can move, and store it
+         * as the next point of the ant. The point is at most one unit away from the ant, half a
+         * unit along the direction on average. The ant stays in place if none of the drawn points
+         * is free.
+         *
+         * @param dx The x coordinate of the direction
+         * @param dy The y coordinate of the direction
+         */
+        private void randomPointAlong(double dx, double dy) {
+            final double length = Math.hypot(dx, dy);
+            final double ux = length == 0 ? 0 : dx / length, uy = length == 0 ? 0 : dy / length;
+            final AntPopulation random = Board.this.ants;
+            // Draw points until one of them is free of obstacles
+            for (int draw = 0; draw < MAX_DRAWS; draw++) {
+                final double x = random.nextDouble(this.id, -1, 1);
+                final double y = random.nextDouble(this.id, -1, 1);
+                this.nextX = this.x + (ux + x) / 2;
+                this.nextY = this.y + (uy + y) / 2;
+                if (this.canMove(this.nextX, this.nextY)) {
+                    return;
+                }
+            }
+            // The ant is surrounded by obstacles, it stays in place
+            this.nextX = this.x;
+            this.nextY = this.y;
         }
 
         /**
-         * Checks if the given pheromone is in the same way as the target point (ie destination
-         * point or source point)
+         * Calculate the point at the given ratio of the way to the given target point, and store it
+         * as the next point of the ant
          *
-         * @param pheromone The pheromone to check
-         * @return True if the pheromone is on the same side as the target point
+         * @param step The ratio of the distance to the target point to travel
+         * @param targetX The x coordinate of the target point
+         * @param targetY The y coordinate of the target point
          */
-        private boolean isPheromoneOnTheWay(Board.Pheromone pheromone) {
-            final Pair<java.lang.Double, java.lang.Double> pheromoneSides =
-                    this.locationTargetPoint(pheromone.getPosition());
-            final Pair<java.lang.Double, java.lang.Double> targetPointSides =
-                    this.locationTargetPoint();
-            return pheromoneSides.equals(targetPointSides);
+        private void pointToTarget(double step, double targetX, double targetY) {
+            this.nextX = this.x + step * (targetX - this.x);
+            this.nextY = this.y + step * (targetY - this.y);
         }
 
         /**
-         * Calculate new point to move
+         * Checks if the given pheromone is in the same way as the target point (ie destination
+         * point or source point). With a distance field, the pheromone must be closer to the target
+         * point than the ant, otherwise it must be on the same side as the target point.
          *
-         * @return The point to move the
+         * @param pheromone The cell of the pheromone to check
+         * @return True if the pheromone is on the way to the target point
          */
-        private Point2D calculateNewPoint() {
+        private boolean isPheromoneOnTheWay(int pheromone) {
+            final DistanceField field = this.field();
+            if (field != null) {
+                // The pheromone is on the way if it is closer to the target around the obstacles
+                return field.distance(
+                                Board.this.pheromones.centerX(pheromone),
+                                Board.this.pheromones.centerY(pheromone))
+                        < field.distance(this.x, this.y);
+            }
+            return this.isOnTheSameSide(
+                    Board.this.pheromones.centerX(pheromone),
+                    Board.this.pheromones.centerY(pheromone),
+                    this.targetX(),
+                    this.targetY());
+        }
+
+        /** Calculate new point to move, and store it as the next point of the ant */
+        private void calculateNewPoint() {
             if (Board.this.pheromones.isEmpty()) {
-                return getRandomPoint(Board.this.destinationPoint.getCenter());
+                this.wander();
+                return;
             }
             /*
                  Pheromones that the current ant instance can reach.
             */
-            // TODO: Take pheromones between the ant and the destination point
-            Set<Pheromone> targetPheromones =
-                    this.distancesToPheromones.keySet().parallelStream()
-                            .filter(p -> p.intensity != 0 && this.isPheromoneOnTheWay(p))
-                            .collect(Collectors.toSet());
-            if (targetPheromones.size() == 0) {
-                return getRandomPoint(
-                        (this.returning ? Board.this.sourcePoint : Board.this.destinationPoint)
-                                .getCenter());
-            }
-            double threshold;
-            List<Set<Board.Pheromone>> clusters;
-            // Iterate until there's more than one pheromone that we can reach
-            while (targetPheromones.size() > 1) {
-                /*
-                   The threshold value is used for distributing pheromones to clusters.
-                   This will be calculated each time from remaining points until the number of
-                   remaining pheromones are equals to number of clusters
-                */
-                threshold = this.calculateThreshold(targetPheromones);
-                clusters = createClusters(targetPheromones, threshold);
-                targetPheromones = chooseCluster(clusters);
-                if (clusters.parallelStream().filter(s -> s.size() != 0).count() == 1) {
-                    /*
-                       If there's only one non-empty cluster, the pheromones are too close
-                    */
-                    break;
-                }
-            }
-            if (targetPheromones.size() > 0) {
-                return getPointToTarget(targetPheromones.iterator().next().getPosition());
-            }
-            return getRandomPoint(Board.this.destinationPoint.getCenter());
-        }
-
-        @Override
-        public int hashCode() {
-            return this.uuid.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (o instanceof Ant) {
-                return this.uuid.equals(((Ant) o).uuid);
+            this.sensePheromones();
+            final int pheromone = this.selectPheromone();
+            if (pheromone >= 0) {
+                // TODO: Move step size to settings
+                this.pointToTarget(
+                        0.01,
+                        Board.this.pheromones.centerX(pheromone),
+                        Board.this.pheromones.centerY(pheromone));
+                return;
             }
-            return false;
+            this.wander();
         }
     }
 
@@ -1273,21 +2092,6 @@ public class Board extends Rectangle implements Runnable {
         }
     }
 
-    private static class EllipticalIElement extends Board.Ellipse implements IElement {
-
-        /**
-         * Creates an elliptical board element with given parameters
-         *
-         * @param x The x coordinate of the center of the ellipse
-         * @param y The y coordinate of the center of the ellipse
-         * @param semiMinor The length of the semi minor axis of the ellipse
-         * @param semiMajor The length of the semi major axis of the ellipse
-         */
-        private EllipticalIElement(double x, double y, double semiMinor, double semiMajor) {
-            super(x, y, semiMinor, semiMajor);
-        }
-    }
-
     private static class CircularElement extends Circle implements IElement {
 
         /**
@@ -1370,6 +2174,10 @@ public class Board extends Rectangle implements Runnable {
         Area getArea(Point p);
 
         Point getLocation();
+
+        boolean isEmpty();
+
+        Rectangle2D getBounds2D();
     }
 
     public static class Circle extends Board.Ellipse {
@@ -1598,6 +2406,28 @@ public class Board extends Rectangle implements Runnable {
             return new Point2D.Double(this.x, this.y);
         }
 
+        /**
+         * Get the x coordinate of the center of the ellipse without allocating a point
+         *
+         * @return The x coordinate of the center of the ellipse
+         */
+        @Override
+        @JsonIgnore
+        public double getCenterX() {
+            return this.x;
+        }
+
+        /**
+         * Get the y coordinate of the center of the ellipse without allocating a point
+         *
+         * @return The y coordinate of the center of the ellipse
+         */
+        @Override
+        @JsonIgnore
+        public double getCenterY() {
+            return this.y;
+        }
+
         public void setCenter(Point p) {
             this.x = p.x;
             this.y = p.y;
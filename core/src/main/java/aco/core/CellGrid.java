@@ -0,0 +1,289 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+/**
+ * Uniform grid of square cells, indexed row by row from its origin. Holds the arithmetic shared by
+ * the grids of the board: the cell containing a point, the center of a cell and the walk over the
+ * cells crossed by a line segment.
+ *
+ * <p>The grid is immutable, thus it can be queried concurrently. A walk is not and must not be
+ * shared between threads.
+ *
+ * @param originX The x coordinate of the top left corner of the grid
+ * @param originY The y coordinate of the top left corner of the grid
+ * @param cellSize The length of the side of a cell
+ * @param columns The number of columns of the grid
+ * @param rows The number of rows of the grid
+ */
+record CellGrid(double originX, double originY, double cellSize, int columns, int rows) {
+
+    /**
+     * Creates the grid of the cells of the given size covering the given area
+     *
+     * @param originX The x coordinate of the top left corner of the area
+     * @param originY The y coordinate of the top left corner of the area
+     * @param width The width of the area
+     * @param height The height of the area
+     * @param cellSize The length of the side of a cell
+     * @return The grid, with at least one cell
+     */
+    static CellGrid covering(
+            double originX, double originY, double width, double height, double cellSize) {
+        return new CellGrid(
+                originX,
+                originY,
+                cellSize,
+                Math.max(1, (int) Math.ceil(width / cellSize)),
+                Math.max(1, (int) Math.ceil(height / cellSize)));
+    }
+
+    /**
+     * Get the number of cells of the grid
+     *
+     * @return The number of cells
+     */
+    int size() {
+        return this.columns * this.rows;
+    }
+
+    /**
+     * Get the index of the cell at the given column and row
+     *
+     * @param column The column of the cell
+     * @param row The row of the cell
+     * @return The index of the cell
+     */
+    int cell(int column, int row) {
+        return row * this.columns + column;
+    }
+
+    /**
+     * Get the column of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The column of the cell
+     */
+    int columnOf(int cell) {
+        return cell % this.columns;
+    }
+
+    /**
+     * Get the row of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The row of the cell
+     */
+    int rowOf(int cell) {
+        return cell / this.columns;
+    }
+
+    /**
+     * Check if the given column and row are inside the grid
+     *
+     * @param column The column
+     * @param row The row
+     * @return True if a cell of the grid is at the given column and row
+     */
+    boolean contains(int column, int row) {
+        return column >= 0 && column < this.columns && row >= 0 && row < this.rows;
+    }
+
+    /**
+     * Get the column containing the given x coordinate, clamped to the grid
+     *
+     * @param x The x coordinate
+     * @return The index of the column
+     */
+    int column(double x) {
+        return Math.max(
+                0,
+                Math.min(this.columns - 1, (int) Math.floor((x - this.originX) / this.cellSize)));
+    }
+
+    /**
+     * Get the row containing the given y coordinate, clamped to the grid
+     *
+     * @param y The y coordinate
+     * @return The index of the row
+     */
+    int row(double y) {
+        return Math.max(
+                0, Math.min(this.rows - 1, (int) Math.floor((y - this.originY) / this.cellSize)));
+    }
+
+    /**
+     * Get the cell containing the given point
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The index of the cell containing the point, -1 if the point is outside the grid
+     */
+    int cellOf(double x, double y) {
+        if (x < this.originX || y < this.originY) {
+            return -1;
+        }
+        final int column = (int) ((x - this.originX) / this.cellSize);
+        final int row = (int) ((y - this.originY) / this.cellSize);
+        if (column >= this.columns || row >= this.rows) {
+            return -1;
+        }
+        return row * this.columns + column;
+    }
+
+    /**
+     * Get the x coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The x coordinate of the center of the cell
+     */
+    double centerX(int cell) {
+        return this.originX + (cell % this.columns + 0.5) * this.cellSize;
+    }
+
+    /**
+     * Get the y coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The y coordinate of the center of the cell
+     */
+    double centerY(int cell) {
+        return this.originY + (cell / this.columns + 0.5) * this.cellSize;
+    }
+
+    /**
+     * Walk over the cells crossed by a line segment, one neighbouring cell at a time. A walk is a
+     * cursor reset for each segment, so a thread casting many rays reuses the same instance.
+     */
+    static final class Walk {
+
+        private boolean clipped;
+        private int lastColumn, lastRow;
+        private int stepColumn, stepRow;
+        private int columns, rows;
+        /*
+           Distances along the segment, in units of the segment length, between two cell borders
+        */
+        private double deltaX, deltaY;
+        /*
+           Distances along the segment, in units of the segment length, to the next cell borders
+        */
+        private double nextX, nextY;
+        private int column, row;
+        /*
+           Each step moves to a neighbouring cell, so the number of visited cells is bounded
+        */
+        private int steps;
+
+        /**
+         * Start the walk over the cells of the given grid crossed by the given line segment (DDA),
+         * clipped to the grid. The walk starts on the first crossed cell.
+         *
+         * @param grid The grid to walk over
+         * @param x1 The x coordinate of the start of the segment
+         * @param y1 The y coordinate of the start of the segment
+         * @param x2 The x coordinate of the end of the segment
+         * @param y2 The y coordinate of the end of the segment
+         * @return True if the segment crosses the grid, false if there is no cell to walk over
+         */
+        boolean reset(CellGrid grid, double x1, double y1, double x2, double y2) {
+            final double maxX = grid.originX + grid.columns * grid.cellSize;
+            final double maxY = grid.originY + grid.rows * grid.cellSize;
+            final double entry =
+                    Geometry.segmentEntry(x1, y1, x2, y2, grid.originX, grid.originY, maxX, maxY);
+            if (Double.isNaN(entry)) {
+                return false;
+            }
+            final double exit =
+                    Geometry.segmentExit(x1, y1, x2, y2, grid.originX, grid.originY, maxX, maxY);
+            final double dx = x2 - x1, dy = y2 - y1;
+            this.clipped = entry > 0 || exit < 1;
+            final double startX = x1 + entry * dx, startY = y1 + entry * dy;
+            this.column = grid.column(startX);
+            this.row = grid.row(startY);
+            this.lastColumn = grid.column(x1 + exit * dx);
+            this.lastRow = grid.row(y1 + exit * dy);
+            this.stepColumn = dx > 0 ? 1 : -1;
+            this.stepRow = dy > 0 ? 1 : -1;
+            this.columns = grid.columns;
+            this.rows = grid.rows;
+            this.deltaX = dx == 0 ? Double.POSITIVE_INFINITY : grid.cellSize / Math.abs(dx);
+            this.deltaY = dy == 0 ? Double.POSITIVE_INFINITY : grid.cellSize / Math.abs(dy);
+            this.nextX = Walk.firstBorder(startX, grid.originX, grid.cellSize, this.column, dx);
+            this.nextY = Walk.firstBorder(startY, grid.originY, grid.cellSize, this.row, dy);
+            this.steps = grid.columns + grid.rows;
+            return true;
+        }
+
+        /**
+         * Check if a part of the segment lies outside the grid
+         *
+         * @return True if the segment was clipped to the grid
+         */
+        boolean isClipped() {
+            return this.clipped;
+        }
+
+        /**
+         * Get the current cell of the walk
+         *
+         * @return The index of the current cell
+         */
+        int cell() {
+            return this.row * this.columns + this.column;
+        }
+
+        /**
+         * Check if the walk reached the last cell crossed by the segment
+         *
+         * @return True if the current cell contains the end of the clipped segment
+         */
+        boolean isAtEnd() {
+            return this.column == this.lastColumn && this.row == this.lastRow;
+        }
+
+        /**
+         * Move to the next cell crossed by the segment
+         *
+         * @return True if the walk moved to a cell of the grid, false if the walk is at its end or
+         *     left the grid before reaching it
+         */
+        boolean advance() {
+            if (this.isAtEnd() || this.steps-- == 0) {
+                return false;
+            }
+            if (this.nextX < this.nextY) {
+                this.column += this.stepColumn;
+                this.nextX += this.deltaX;
+            } else {
+                this.row += this.stepRow;
+                this.nextY += this.deltaY;
+            }
+            return this.column >= 0
+                    && this.column < this.columns
+                    && this.row >= 0
+                    && this.row < this.rows;
+        }
+
+        /**
+         * Get the distance along a segment from its start to the first cell border crossed on one
+         * axis
+         *
+         * @param start The coordinate of the start of the segment on the axis
+         * @param origin The coordinate of the origin of the grid on the axis
+         * @param cellSize The length of the side of a cell
+         * @param index The index of the cell containing the start on the axis
+         * @param delta The length of the segment projected on the axis
+         * @return The distance in units of the segment length
+         */
+        private static double firstBorder(
+                double start, double origin, double cellSize, int index, double delta) {
+            if (delta == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            final double border = origin + (delta > 0 ? index + 1 : index) * cellSize;
+            return Math.abs(border - start) / Math.abs(delta);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PriorityQueue;
+
+/**
+ * Distance from each cell of a grid covering the board to a circular goal, going around the
+ * obstacles. The field is computed once per map with Dijkstra's algorithm on the 8 neighbours of
+ * each cell, so an ant finds the way to its goal by moving to the neighbouring cell with the lowest
+ * distance, in constant time.
+ *
+ * <p>A cell is blocked if an ant centered on it would collude with an obstacle, thus the distances
+ * account for the size of the ants. Blocked and unreachable cells have an infinite distance.
+ *
+ * <p>The field is never modified once computed, thus it can be queried concurrently.
+ */
+class DistanceField {
+
+    /*
+       The offsets of the 8 neighbours of a cell, orthogonal neighbours first
+    */
+    private static final int[] NEIGHBOUR_COLUMNS = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOUR_ROWS = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final CellGrid grid;
+    private final float[] distances;
+
+    /**
+     * Compute the distance field of the given goal
+     *
+     * @param obstacles The obstacles of the board
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param cellSize The length of the side of a cell
+     * @param semiAxisX The length of the semi axis of an ant along the x axis
+     * @param semiAxisY The length of the semi axis of an ant along the y axis
+     * @param goalX The x coordinate of the center of the goal
+     * @param goalY The y coordinate of the center of the goal
+     * @param goalRadius The radius of the goal
+     */
+    DistanceField(
+            ObstacleIndex<?> obstacles,
+            int width,
+            int height,
+            int cellSize,
+            double semiAxisX,
+            double semiAxisY,
+            double goalX,
+            double goalY,
+            double goalRadius) {
+        this.grid = CellGrid.covering(0, 0, width, height, Math.max(1, cellSize));
+        this.distances = new float[this.grid.size()];
+        Arrays.fill(this.distances, Float.POSITIVE_INFINITY);
+        final BitSet blocked = new BitSet(this.grid.size());
+        for (int cell = 0; cell < this.grid.size(); cell++) {
+            if (obstacles.anyIntersectsEllipse(
+                    this.centerX(cell), this.centerY(cell), semiAxisX, semiAxisY)) {
+                blocked.set(cell);
+            }
+        }
+        this.compute(blocked, goalX, goalY, goalRadius);
+    }
+
+    /**
+     * Run Dijkstra's algorithm from all the free cells of the goal. Diagonal moves are only allowed
+     * if both orthogonal cells they cut through are free, so paths never cross an obstacle corner.
+     *
+     * @param blocked The cells colluding with an obstacle
+     * @param goalX The x coordinate of the center of the goal
+     * @param goalY The y coordinate of the center of the goal
+     * @param goalRadius The radius of the goal
+     */
+    private void compute(BitSet blocked, double goalX, double goalY, double goalRadius) {
+        // Entries are the distance in the high bits and the cell in the low bits, distances are
+        // positive floats so their bits are ordered as the distances themselves
+        final PriorityQueue<Long> queue = new PriorityQueue<>();
+        for (int cell = 0; cell < this.grid.size(); cell++) {
+            if (!blocked.get(cell)
+                    && Math.hypot(this.centerX(cell) - goalX, this.centerY(cell) - goalY)
+                            < goalRadius) {
+                this.distances[cell] = 0;
+                queue.add((long) cell);
+            }
+        }
+        final int goalCell = this.cellOf(goalX, goalY);
+        if (queue.isEmpty() && goalCell >= 0 && !blocked.get(goalCell)) {
+            // The goal is smaller than a cell
+            this.distances[goalCell] = 0;
+            queue.add((long) goalCell);
+        }
+        final float cellSize = (float) this.grid.cellSize();
+        final float diagonal = (float) Math.sqrt(2) * cellSize;
+        while (!queue.isEmpty()) {
+            final long entry = queue.poll();
+            final int cell = (int) entry;
+            final float distance = Float.intBitsToFloat((int) (entry >>> 32));
+            if (distance > this.distances[cell]) {
+                // Outdated entry, the cell was reached by a shorter path
+                continue;
+            }
+            final int column = this.grid.columnOf(cell), row = this.grid.rowOf(cell);
+            for (int i = 0; i < NEIGHBOUR_COLUMNS.length; i++) {
+                final int neighbourColumn = column + NEIGHBOUR_COLUMNS[i];
+                final int neighbourRow = row + NEIGHBOUR_ROWS[i];
+                if (!this.grid.contains(neighbourColumn, neighbourRow)) {
+                    continue;
+                }
+                final int neighbour = this.grid.cell(neighbourColumn, neighbourRow);
+                if (blocked.get(neighbour)) {
+                    continue;
+                }
+                final boolean isDiagonal = i >= 4;
+                if (isDiagonal
+                        && (blocked.get(this.grid.cell(neighbourColumn, row))
+                                || blocked.get(this.grid.cell(column, neighbourRow)))) {
+                    continue;
+                }
+                final float candidate = distance + (isDiagonal ? diagonal : cellSize);
+                if (candidate < this.distances[neighbour]) {
+                    this.distances[neighbour] = candidate;
+                    queue.add((long) Float.floatToIntBits(candidate) << 32 | neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the distance to the goal from the given point
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The distance to the goal from the cell containing the point, infinite if the cell is
+     *     blocked, unreachable or outside the grid
+     */
+    float distance(double x, double y) {
+        final int cell = this.cellOf(x, y);
+        return cell < 0 ? Float.POSITIVE_INFINITY : this.distances[cell];
+    }
+
+    /**
+     * Get the neighbour of the cell containing the given point which is the closest to the goal,
+     * following the gradient of the field
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The index of the neighbouring cell with the lowest distance to the goal, -1 if no
+     *     neighbour is closer to the goal than the cell containing the point
+     */
+    int descend(double x, double y) {
+        final int cell = this.cellOf(x, y);
+        if (cell < 0) {
+            return -1;
+        }
+        final int column = this.grid.columnOf(cell), row = this.grid.rowOf(cell);
+        int best = -1;
+        float bestDistance = this.distances[cell];
+        for (int i = 0; i < NEIGHBOUR_COLUMNS.length; i++) {
+            final int neighbourColumn = column + NEIGHBOUR_COLUMNS[i];
+            final int neighbourRow = row + NEIGHBOUR_ROWS[i];
+            if (!this.grid.contains(neighbourColumn, neighbourRow)) {
+                continue;
+            }
+            final int neighbour = this.grid.cell(neighbourColumn, neighbourRow);
+            if (this.distances[neighbour] < bestDistance) {
+                best = neighbour;
+                bestDistance = this.distances[neighbour];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the cell containing the given point
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The index of the cell containing the point, -1 if the point is outside the grid
+     */
+    int cellOf(double x, double y) {
+        return this.grid.cellOf(x, y);
+    }
+
+    /**
+     * Get the x coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The x coordinate of the center of the cell
+     */
+    double centerX(int cell) {
+        return this.grid.centerX(cell);
+    }
+
+    /**
+     * Get the y coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The y coordinate of the center of the cell
+     */
+    double centerY(int cell) {
+        return this.grid.centerY(cell);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+/**
+ * Closed-form intersection tests between the shapes of a board. Ants are axis-aligned ellipses,
+ * source and destination points are circles and obstacles are axis-aligned rectangles, so every
+ * test the simulation needs can be answered with a few arithmetic operations instead of building
+ * {@link java.awt.geom.Area} instances.
+ *
+ * <p>Shapes touching only on their outlines do not intersect, as with {@link
+ * java.awt.geom.Area#intersect}.
+ */
+final class Geometry {
+
+    private Geometry() {}
+
+    /**
+     * Check if an axis-aligned ellipse intersects an axis-aligned rectangle. Scaling the plane so
+     * the ellipse becomes the unit circle keeps the rectangle axis-aligned, thus the point of the
+     * rectangle closest to the center of the ellipse is found by clamping the center.
+     *
+     * @param cx The x coordinate of the center of the ellipse
+     * @param cy The y coordinate of the center of the ellipse
+     * @param semiAxisX The length of the semi axis of the ellipse along the x axis
+     * @param semiAxisY The length of the semi axis of the ellipse along the y axis
+     * @param minX The x coordinate of the left side of the rectangle
+     * @param minY The y coordinate of the top side of the rectangle
+     * @param maxX The x coordinate of the right side of the rectangle
+     * @param maxY The y coordinate of the bottom side of the rectangle
+     * @return True if the interiors of the ellipse and the rectangle intersect
+     */
+    static boolean ellipseIntersectsRectangle(
+            double cx,
+            double cy,
+            double semiAxisX,
+            double semiAxisY,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        if (semiAxisX <= 0 || semiAxisY <= 0 || minX >= maxX || minY >= maxY) {
+            return false;
+        }
+        final double dx = (Math.max(minX, Math.min(cx, maxX)) - cx) / semiAxisX;
+        final double dy = (Math.max(minY, Math.min(cy, maxY)) - cy) / semiAxisY;
+        return dx * dx + dy * dy < 1;
+    }
+
+    /**
+     * Check if two circles intersect
+     *
+     * @param x1 The x coordinate of the center of the first circle
+     * @param y1 The y coordinate of the center of the first circle
+     * @param r1 The radius of the first circle
+     * @param x2 The x coordinate of the center of the second circle
+     * @param y2 The y coordinate of the center of the second circle
+     * @param r2 The radius of the second circle
+     * @return True if the interiors of the circles intersect
+     */
+    static boolean circlesIntersect(
+            double x1, double y1, double r1, double x2, double y2, double r2) {
+        if (r1 <= 0 || r2 <= 0) {
+            return false;
+        }
+        final double dx = x2 - x1, dy = y2 - y1, r = r1 + r2;
+        return dx * dx + dy * dy < r * r;
+    }
+
+    /**
+     * Check if two axis-aligned rectangles intersect
+     *
+     * @param minX1 The x coordinate of the left side of the first rectangle
+     * @param minY1 The y coordinate of the top side of the first rectangle
+     * @param maxX1 The x coordinate of the right side of the first rectangle
+     * @param maxY1 The y coordinate of the bottom side of the first rectangle
+     * @param minX2 The x coordinate of the left side of the second rectangle
+     * @param minY2 The y coordinate of the top side of the second rectangle
+     * @param maxX2 The x coordinate of the right side of the second rectangle
+     * @param maxY2 The y coordinate of the bottom side of the second rectangle
+     * @return True if the interiors of the rectangles intersect
+     */
+    static boolean rectanglesIntersect(
+            double minX1,
+            double minY1,
+            double maxX1,
+            double maxY1,
+            double minX2,
+            double minY2,
+            double maxX2,
+            double maxY2) {
+        return minX1 < maxX1
+                && minY1 < maxY1
+                && minX2 < maxX2
+                && minY2 < maxY2
+                && minX1 < maxX2
+                && minX2 < maxX1
+                && minY1 < maxY2
+                && minY2 < maxY1;
+    }
+
+    /**
+     * Check if a line segment intersects an axis-aligned rectangle, its outline included
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param minX The x coordinate of the left side of the rectangle
+     * @param minY The y coordinate of the top side of the rectangle
+     * @param maxX The x coordinate of the right side of the rectangle
+     * @param maxY The y coordinate of the bottom side of the rectangle
+     * @return True if the segment intersects the rectangle
+     */
+    static boolean segmentIntersectsRectangle(
+            double x1,
+            double y1,
+            double x2,
+            double y2,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        return !Double.isNaN(Geometry.clip(x1, y1, x2, y2, minX, minY, maxX, maxY, false));
+    }
+
+    /**
+     * Get the position along a line segment where it enters an axis-aligned rectangle
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param minX The x coordinate of the left side of the rectangle
+     * @param minY The y coordinate of the top side of the rectangle
+     * @param maxX The x coordinate of the right side of the rectangle
+     * @param maxY The y coordinate of the bottom side of the rectangle
+     * @return The position in units of the segment length between 0 and 1, NaN if the segment does
+     *     not intersect the rectangle
+     */
+    static double segmentEntry(
+            double x1,
+            double y1,
+            double x2,
+            double y2,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        return Geometry.clip(x1, y1, x2, y2, minX, minY, maxX, maxY, false);
+    }
+
+    /**
+     * Get the position along a line segment where it leaves an axis-aligned rectangle
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param minX The x coordinate of the left side of the rectangle
+     * @param minY The y coordinate of the top side of the rectangle
+     * @param maxX The x coordinate of the right side of the rectangle
+     * @param maxY The y coordinate of the bottom side of the rectangle
+     * @return The position in units of the segment length between 0 and 1, NaN if the segment does
+     *     not intersect the rectangle
+     */
+    static double segmentExit(
+            double x1,
+            double y1,
+            double x2,
+            double y2,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        return Geometry.clip(x1, y1, x2, y2, minX, minY, maxX, maxY, true);
+    }
+
+    /**
+     * Check if a rectangle contains another one, outlines included
+     *
+     * @param minX1 The x coordinate of the left side of the containing rectangle
+     * @param minY1 The y coordinate of the top side of the containing rectangle
+     * @param maxX1 The x coordinate of the right side of the containing rectangle
+     * @param maxY1 The y coordinate of the bottom side of the containing rectangle
+     * @param minX2 The x coordinate of the left side of the contained rectangle
+     * @param minY2 The y coordinate of the top side of the contained rectangle
+     * @param maxX2 The x coordinate of the right side of the contained rectangle
+     * @param maxY2 The y coordinate of the bottom side of the contained rectangle
+     * @return True if the second rectangle lies within the first one
+     */
+    static boolean rectangleContains(
+            double minX1,
+            double minY1,
+            double maxX1,
+            double maxY1,
+            double minX2,
+            double minY2,
+            double maxX2,
+            double maxY2) {
+        return minX1 <= minX2 && minY1 <= minY2 && maxX2 <= maxX1 && maxY2 <= maxY1;
+    }
+
+    /**
+     * Clip the parametric range of a line segment by each side of an axis-aligned rectangle
+     * (Liang-Barsky)
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param minX The x coordinate of the left side of the rectangle
+     * @param minY The y coordinate of the top side of the rectangle
+     * @param maxX The x coordinate of the right side of the rectangle
+     * @param maxY The y coordinate of the bottom side of the rectangle
+     * @param exit True to get the end of the clipped range, false to get its start
+     * @return The requested bound of the clipped range, NaN if the range is empty
+     */
+    private static double clip(
+            double x1,
+            double y1,
+            double x2,
+            double y2,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY,
+            boolean exit) {
+        if (minX > maxX || minY > maxY) {
+            return Double.NaN;
+        }
+        final double dx = x2 - x1, dy = y2 - y1;
+        double from = 0, to = 1;
+        for (int side = 0; side < 4; side++) {
+            // The projection of the direction on the normal of the side and the distance to it
+            final double p, q;
+            switch (side) {
+                case 0 -> {
+                    p = -dx;
+                    q = x1 - minX;
+                }
+                case 1 -> {
+                    p = dx;
+                    q = maxX - x1;
+                }
+                case 2 -> {
+                    p = -dy;
+                    q = y1 - minY;
+                }
+                default -> {
+                    p = dy;
+                    q = maxY - y1;
+                }
+            }
+            if (p == 0) {
+                if (q < 0) {
+                    // Parallel to the side and outside of it
+                    return Double.NaN;
+                }
+                continue;
+            }
+            final double t = q / p;
+            if (p < 0) {
+                from = Math.max(from, t);
+            } else {
+                to = Math.min(to, t);
+            }
+            if (from > to) {
+                return Double.NaN;
+            }
+        }
+        return exit ? to : from;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid over the obstacles of a board. Each cell of the grid references the obstacles whose
+ * bounds overlap it, so a query only tests the obstacles near the queried area instead of all the
+ * obstacles of the board.
+ *
+ * <p>The index is built once and never modified afterwards, thus it can be queried concurrently.
+ * The grid covers the board and the bounds of all obstacles, so an obstacle lying partly outside
+ * the board is still found.
+ *
+ * @param <T> The type of the obstacles
+ */
+class ObstacleIndex<T extends Rectangle2D> {
+
+    /*
+       The minimal length of the side of a cell, avoids huge grids for tiny obstacles
+    */
+    private static final double MIN_CELL_SIZE = 16;
+
+    private final List<T> obstacles;
+    private final CellGrid grid;
+    /*
+       The obstacles of the cell c are the obstacles at the indexes
+       entries[cellStarts[c]] to entries[cellStarts[c + 1] - 1]
+    */
+    private final int[] cellStarts;
+    private final int[] entries;
+
+    /**
+     * Creates the index of the given obstacles
+     *
+     * @param bounds The bounds of the board
+     * @param obstacles The obstacles to index
+     */
+    ObstacleIndex(Rectangle2D bounds, Collection<T> obstacles) {
+        this.obstacles = new ArrayList<>(obstacles);
+        final Rectangle2D extent = new Rectangle2D.Double();
+        extent.setRect(bounds);
+        double totalSize = 0;
+        for (T obstacle : this.obstacles) {
+            extent.add(obstacle);
+            totalSize += Math.max(obstacle.getWidth(), obstacle.getHeight());
+        }
+        // Cells about the size of an obstacle keep the number of cells and of entries low
+        final double cellSize =
+                this.obstacles.isEmpty()
+                        ? Math.max(MIN_CELL_SIZE, Math.max(extent.getWidth(), extent.getHeight()))
+                        : Math.max(MIN_CELL_SIZE, totalSize / this.obstacles.size());
+        this.grid =
+                CellGrid.covering(
+                        extent.getX(),
+                        extent.getY(),
+                        extent.getWidth(),
+                        extent.getHeight(),
+                        cellSize);
+        this.cellStarts = new int[this.grid.size() + 1];
+        // Count the obstacles of each cell, then fill the entries cell by cell
+        for (T obstacle : this.obstacles) {
+            this.forEachCell(obstacle, (int cell) -> this.cellStarts[cell + 1]++);
+        }
+        for (int cell = 0; cell < this.grid.size(); cell++) {
+            this.cellStarts[cell + 1] += this.cellStarts[cell];
+        }
+        this.entries = new int[this.cellStarts[this.grid.size()]];
+        final int[] next = this.cellStarts.clone();
+        for (int i = 0; i < this.obstacles.size(); i++) {
+            final int index = i;
+            this.forEachCell(
+                    this.obstacles.get(i), (int cell) -> this.entries[next[cell]++] = index);
+        }
+    }
+
+    /**
+     * Check if any obstacle overlapping the given area matches the given predicate. The predicate
+     * is only called for the obstacles whose bounds intersect the area.
+     *
+     * @param area The area to check
+     * @param predicate The exact test to apply to the candidate obstacles
+     * @return True if the predicate returned true for one of the candidate obstacles
+     */
+    boolean anyMatch(Rectangle2D area, Predicate<T> predicate) {
+        if (this.obstacles.isEmpty()) {
+            return false;
+        }
+        final int fromColumn = this.grid.column(area.getMinX()),
+                toColumn = this.grid.column(area.getMaxX());
+        final int fromRow = this.grid.row(area.getMinY()), toRow = this.grid.row(area.getMaxY());
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                final int cell = this.grid.cell(column, row);
+                for (int i = this.cellStarts[cell]; i < this.cellStarts[cell + 1]; i++) {
+                    final T obstacle = this.obstacles.get(this.entries[i]);
+                    if (obstacle.intersects(area) && predicate.test(obstacle)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if any obstacle intersects the given axis-aligned ellipse. Only the obstacles of the
+     * cells overlapped by the bounds of the ellipse are tested.
+     *
+     * @param cx The x coordinate of the center of the ellipse
+     * @param cy The y coordinate of the center of the ellipse
+     * @param semiAxisX The length of the semi axis of the ellipse along the x axis
+     * @param semiAxisY The length of the semi axis of the ellipse along the y axis
+     * @return True if an obstacle intersects the ellipse
+     */
+    boolean anyIntersectsEllipse(double cx, double cy, double semiAxisX, double semiAxisY) {
+        if (this.obstacles.isEmpty()) {
+            return false;
+        }
+        final int fromColumn = this.grid.column(cx - semiAxisX),
+                toColumn = this.grid.column(cx + semiAxisX);
+        final int fromRow = this.grid.row(cy - semiAxisY), toRow = this.grid.row(cy + semiAxisY);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                final int cell = this.grid.cell(column, row);
+                for (int i = this.cellStarts[cell]; i < this.cellStarts[cell + 1]; i++) {
+                    final T obstacle = this.obstacles.get(this.entries[i]);
+                    if (Geometry.ellipseIntersectsRectangle(
+                            cx,
+                            cy,
+                            semiAxisX,
+                            semiAxisY,
+                            obstacle.getMinX(),
+                            obstacle.getMinY(),
+                            obstacle.getMaxX(),
+                            obstacle.getMaxY())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if any obstacle intersects the given line segment. Only the cells crossed by the
+     * segment are visited.
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param walk The walk reset to the segment, owned by the calling thread
+     * @return True if an obstacle intersects the segment
+     */
+    boolean anyIntersectsLine(double x1, double y1, double x2, double y2, CellGrid.Walk walk) {
+        if (this.obstacles.isEmpty()) {
+            return false;
+        }
+        // The segment is clipped to the grid, there's no obstacle outside it
+        if (!walk.reset(this.grid, x1, y1, x2, y2)) {
+            return false;
+        }
+        do {
+            final int cell = walk.cell();
+            for (int i = this.cellStarts[cell]; i < this.cellStarts[cell + 1]; i++) {
+                final T obstacle = this.obstacles.get(this.entries[i]);
+                if (Geometry.segmentIntersectsRectangle(
+                        x1,
+                        y1,
+                        x2,
+                        y2,
+                        obstacle.getMinX(),
+                        obstacle.getMinY(),
+                        obstacle.getMaxX(),
+                        obstacle.getMaxY())) {
+                    return true;
+                }
+            }
+        } while (walk.advance());
+        return false;
+    }
+
+    /**
+     * Get the number of indexed obstacles
+     *
+     * @return The number of obstacles
+     */
+    int size() {
+        return this.obstacles.size();
+    }
+
+    /**
+     * Call the given consumer for each cell overlapped by the bounds of the given obstacle
+     *
+     * @param obstacle The obstacle
+     * @param consumer The consumer called with the index of each cell
+     */
+    private void forEachCell(T obstacle, IntConsumer consumer) {
+        final int fromColumn = this.grid.column(obstacle.getMinX());
+        final int toColumn = this.grid.column(obstacle.getMaxX());
+        final int fromRow = this.grid.row(obstacle.getMinY()),
+                toRow = this.grid.row(obstacle.getMaxY());
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                consumer.accept(this.grid.cell(column, row));
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+
+/**
+ * Rasterised occupancy of the obstacles of a board. The board is divided into square cells and each
+ * cell is either free (no obstacle overlaps it), full (it lies entirely inside an obstacle) or
+ * partial (it overlaps the edge of an obstacle). The states are stored in two packed bitsets, so a
+ * point test is a single lookup and a line of sight is a walk over the crossed cells. Only the
+ * partial cells need an exact geometric test, which is left to the caller.
+ *
+ * <p>Obstacles may be grown by a margin on each axis before being rasterised as free or partial
+ * cells, so a grid grown by the semi axes of an ant tells if an ant centered in a cell may collude
+ * with an obstacle.
+ *
+ * <p>The grid is built once and never modified afterwards, thus it can be queried concurrently.
+ */
+class OccupancyGrid {
+
+    /** No obstacle overlaps the cell */
+    static final int FREE = 0;
+    /** The cell overlaps the edge of an obstacle, an exact test is required */
+    static final int PARTIAL = 1;
+    /** The cell lies entirely inside an obstacle */
+    static final int FULL = 2;
+
+    private final CellGrid grid;
+    /*
+       One bit per cell, set if an obstacle grown by the margins overlaps the cell
+    */
+    private final long[] occupied;
+    /*
+       One bit per cell, set if the cell lies entirely inside an obstacle
+    */
+    private final long[] full;
+
+    /**
+     * Rasterise the given obstacles
+     *
+     * @param obstacles The obstacles to rasterise
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param cellSize The length of the side of a cell
+     * @param marginX The length the obstacles are grown by on each side along the x axis
+     * @param marginY The length the obstacles are grown by on each side along the y axis
+     */
+    OccupancyGrid(
+            Collection<? extends Rectangle2D> obstacles,
+            int width,
+            int height,
+            int cellSize,
+            double marginX,
+            double marginY) {
+        this.grid = CellGrid.covering(0, 0, width, height, Math.max(1, cellSize));
+        this.occupied = new long[(this.grid.size() + 63) >>> 6];
+        this.full = new long[this.occupied.length];
+        for (Rectangle2D obstacle : obstacles) {
+            if (obstacle.isEmpty()) {
+                continue;
+            }
+            // Cells touching the grown obstacle, outlines included
+            this.fill(
+                    this.occupied,
+                    this.grid.column(obstacle.getMinX() - marginX),
+                    this.grid.row(obstacle.getMinY() - marginY),
+                    this.grid.column(obstacle.getMaxX() + marginX),
+                    this.grid.row(obstacle.getMaxY() + marginY));
+            // Cells whose sides are all inside the obstacle
+            final double size = this.grid.cellSize();
+            this.fill(
+                    this.full,
+                    Math.max(0, (int) Math.ceil(obstacle.getMinX() / size)),
+                    Math.max(0, (int) Math.ceil(obstacle.getMinY() / size)),
+                    Math.min(
+                            this.grid.columns() - 1,
+                            (int) Math.floor(obstacle.getMaxX() / size) - 1),
+                    Math.min(
+                            this.grid.rows() - 1, (int) Math.floor(obstacle.getMaxY() / size) - 1));
+        }
+    }
+
+    /**
+     * Get the state of the cell containing the given point
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The state of the cell, {@link #PARTIAL} if the point is outside the grid
+     */
+    int stateAt(double x, double y) {
+        final int cell = this.grid.cellOf(x, y);
+        return cell < 0 ? PARTIAL : this.state(cell);
+    }
+
+    /**
+     * Check if no obstacle overlaps any cell of the given area. Any line segment inside such an
+     * area is clear of obstacles, so its line of sight does not need to be traversed.
+     *
+     * @param minX The x coordinate of the left side of the area
+     * @param minY The y coordinate of the top side of the area
+     * @param maxX The x coordinate of the right side of the area
+     * @param maxY The y coordinate of the bottom side of the area
+     * @return True if the area lies inside the grid and all its cells are free
+     */
+    boolean isFree(double minX, double minY, double maxX, double maxY) {
+        if (minX < this.grid.originX()
+                || minY < this.grid.originY()
+                || maxX > this.grid.originX() + this.grid.columns() * this.grid.cellSize()
+                || maxY > this.grid.originY() + this.grid.rows() * this.grid.cellSize()) {
+            return false;
+        }
+        final int fromColumn = this.grid.column(minX), toColumn = this.grid.column(maxX);
+        final int fromRow = this.grid.row(minY), toRow = this.grid.row(maxY);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                final int cell = this.grid.cell(column, row);
+                // Full cells are also occupied
+                if ((this.occupied[cell >>> 6] & (1L << cell)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walk over the cells crossed by the given line segment (DDA) and get the state of the line of
+     * sight
+     *
+     * @param x1 The x coordinate of the start of the segment
+     * @param y1 The y coordinate of the start of the segment
+     * @param x2 The x coordinate of the end of the segment
+     * @param y2 The y coordinate of the end of the segment
+     * @param walk The walk reset to the segment, owned by the calling thread
+     * @return {@link #FULL} if the segment crosses a full cell, {@link #FREE} if it only crosses
+     *     free cells, {@link #PARTIAL} otherwise or if the segment leaves the grid
+     */
+    int traverse(double x1, double y1, double x2, double y2, CellGrid.Walk walk) {
+        if (!walk.reset(this.grid, x1, y1, x2, y2)) {
+            return PARTIAL;
+        }
+        int result = walk.isClipped() ? PARTIAL : FREE;
+        do {
+            final int state = this.state(walk.cell());
+            if (state == FULL) {
+                return FULL;
+            }
+            result = Math.max(result, state);
+        } while (walk.advance());
+        // The walk left the grid before reaching the end of the segment
+        return walk.isAtEnd() ? result : PARTIAL;
+    }
+
+    /**
+     * Get the state of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The state of the cell
+     */
+    private int state(int cell) {
+        final long mask = 1L << cell;
+        if ((this.full[cell >>> 6] & mask) != 0) {
+            return FULL;
+        }
+        return (this.occupied[cell >>> 6] & mask) != 0 ? PARTIAL : FREE;
+    }
+
+    /**
+     * Set the bits of the cells of the given range
+     *
+     * @param bits The bitset to update
+     * @param fromColumn The first column of the range
+     * @param fromRow The first row of the range
+     * @param toColumn The last column of the range, included
+     * @param toRow The last row of the range, included
+     */
+    private void fill(long[] bits, int fromColumn, int fromRow, int toColumn, int toRow) {
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                final int cell = this.grid.cell(column, row);
+                bits[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+}
@@ -81,7 +81,7 @@ class PausableThreadPoolExecutor extends ThreadPoolExecutor {
         pauseLock.lock();
         try {
             isPaused = false;
-            unpaused.signal();
+            unpaused.signalAll();
         } finally {
             pauseLock.unlock();
         }
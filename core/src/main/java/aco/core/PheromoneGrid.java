@@ -0,0 +1,558 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Dense pheromone field covering the board. The board is divided into square cells of a fixed size
+ * and each cell stores its intensity and the tick of its last update in primitive arrays, so the
+ * memory footprint only depends on the size of the board.
+ *
+ * <p>Evaporation is lazy: a pheromone loses one level of intensity each time the evaporation
+ * timeout elapses since its last update, and this loss is only computed when the cell is read or
+ * deposited. The cells which received a pheromone are kept in a list, so the compaction pass which
+ * drops the evaporated cells only visits the cells actually touched.
+ *
+ * <p>When diffusion is enabled, each tick a part of the intensity of each cell spreads to its
+ * neighbouring cells, with a double-buffered stencil computed in parallel by stripes of rows.
+ * Evaporation is then applied eagerly by the same pass, at the same average rate as the lazy
+ * evaporation.
+ *
+ * <p>The grid is not thread safe. Deposits and compaction are made by the simulation engine on a
+ * single thread, lookups are made by the move phase while the grid is not modified.
+ */
+class PheromoneGrid {
+
+    /*
+       The number of rows of a stripe of the diffusion stencil, processed by a single thread
+    */
+    static final int STRIPE_ROWS = 32;
+
+    private final CellGrid grid;
+    /*
+       The number of ticks a pheromone waits before losing one level of intensity
+    */
+    private final long timeout;
+    /*
+       The part of the intensity of a cell spread to its 4 neighbours at each tick, 0 if disabled
+    */
+    private final float diffusionRate;
+    /*
+       The intensity of each cell at the tick of its last update. Once diffusion is enabled, the
+       intensity of each cell at the current tick
+    */
+    private float[] intensities;
+    /*
+       The back buffer of the diffusion stencil, null if the diffusion is disabled
+    */
+    private float[] diffused;
+    /*
+       One bit per cell, set if the cell is inside an obstacle. Pheromones never diffuse there
+    */
+    private final long[] masked;
+    /*
+       The rows containing or next to a masked cell, the stencil checks the mask of their cells
+    */
+    private final BitSet maskedRows;
+    /*
+       The cells reached by a pheromone for the first time during the last diffusion step, one
+       buffer per stripe of rows
+    */
+    private final int[][] reached;
+    private final int[] reachedCounts;
+    /*
+       The cells whose rounded intensity differs from the published one after the last diffusion
+       step, one buffer per stripe of rows, only collected while the changes are published
+    */
+    private final int[][] changed;
+    private final int[] changedCounts;
+    /*
+       The sum of the intensities of each stripe of rows after the last diffusion step
+    */
+    private final double[] stripeTotals;
+    /*
+       The tick of the last update of each cell. Ticks are stored as int and compared by
+       difference, so the values may safely wrap around
+    */
+    private final int[] lastUpdates;
+    /*
+       The intensity of each cell as last published to the subscribers of the board
+    */
+    private final int[] published;
+    /*
+       The cells which received a pheromone since the last compaction
+    */
+    private int[] live;
+    private int liveCount;
+    private final BitSet listed;
+
+    /**
+     * Creates an empty pheromone grid
+     *
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param cellSize The length of the side of a cell
+     * @param timeout The number of ticks a pheromone waits before losing one level of intensity
+     * @param diffusionRate The part of the intensity of a cell spread to its neighbours at each
+     *     tick, between 0 and 1, 0 to disable the diffusion
+     */
+    PheromoneGrid(int width, int height, int cellSize, long timeout, float diffusionRate) {
+        this.grid = CellGrid.covering(0, 0, width, height, Math.max(1, cellSize));
+        this.timeout = Math.max(1, timeout);
+        this.diffusionRate = Math.max(0, Math.min(1, diffusionRate));
+        this.intensities = new float[this.grid.size()];
+        this.diffused = this.diffusionRate > 0 ? new float[this.grid.size()] : null;
+        this.masked = new long[(this.grid.size() + 63) >>> 6];
+        this.maskedRows = new BitSet(this.grid.rows());
+        final int stripes =
+                this.diffused != null ? (this.grid.rows() + STRIPE_ROWS - 1) / STRIPE_ROWS : 0;
+        this.reached = new int[stripes][STRIPE_ROWS];
+        this.reachedCounts = new int[stripes];
+        this.changed = new int[stripes][STRIPE_ROWS];
+        this.changedCounts = new int[stripes];
+        this.stripeTotals = new double[stripes];
+        this.lastUpdates = new int[this.grid.size()];
+        this.published = new int[this.grid.size()];
+        this.live = new int[64];
+        this.liveCount = 0;
+        this.listed = new BitSet(this.grid.size());
+    }
+
+    /**
+     * Get the cell containing the given point
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The index of the cell containing the point, -1 if the point is outside the grid
+     */
+    int cellOf(double x, double y) {
+        return this.grid.cellOf(x, y);
+    }
+
+    /**
+     * Get the x coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The x coordinate of the center of the cell
+     */
+    double centerX(int cell) {
+        return this.grid.centerX(cell);
+    }
+
+    /**
+     * Get the y coordinate of the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The y coordinate of the center of the cell
+     */
+    double centerY(int cell) {
+        return this.grid.centerY(cell);
+    }
+
+    /**
+     * Get the center of the given cell
+     *
+     * @param cell The index of the cell
+     * @return The center point of the cell
+     */
+    Point2D center(int cell) {
+        return new Point2D.Double(this.centerX(cell), this.centerY(cell));
+    }
+
+    /**
+     * Get the intensity of the given cell at the given tick
+     *
+     * @param cell The index of the cell
+     * @param tick The current tick
+     * @return The intensity of the pheromone in the cell, once evaporated
+     */
+    float intensity(int cell, long tick) {
+        final float stored = this.intensities[cell];
+        if (stored <= 0 || this.diffused != null) {
+            // With diffusion, evaporation is already applied to the stored intensity
+            return Math.max(0, stored);
+        }
+        final long levels = ((int) tick - this.lastUpdates[cell]) / this.timeout;
+        return Math.max(0, stored - levels);
+    }
+
+    /**
+     * Add the given amount of intensity to the given cell. The evaporation since the last update of
+     * the cell is applied first.
+     *
+     * @param cell The index of the cell
+     * @param amount The intensity to add
+     * @param tick The current tick
+     * @return True if the cell had no pheromone before the deposit
+     */
+    boolean deposit(int cell, float amount, long tick) {
+        final float current = this.intensity(cell, tick);
+        this.intensities[cell] = current + amount;
+        this.lastUpdates[cell] = (int) tick;
+        if (!this.listed.get(cell)) {
+            this.listed.set(cell);
+            if (this.liveCount == this.live.length) {
+                this.live = Arrays.copyOf(this.live, this.live.length * 2);
+            }
+            this.live[this.liveCount++] = cell;
+        }
+        return current <= 0;
+    }
+
+    /**
+     * Publish the current intensity of the given cell
+     *
+     * @param cell The index of the cell
+     * @param tick The current tick
+     * @return The change of the intensity since the last time the cell was published
+     */
+    int publish(int cell, long tick) {
+        final int current = Math.round(this.intensity(cell, tick));
+        final int delta = current - this.published[cell];
+        this.published[cell] = current;
+        return delta;
+    }
+
+    /**
+     * Visit all the cells which received a pheromone since the last compaction. The cost is
+     * proportional to the number of touched cells and not to the size of the grid.
+     *
+     * @param tick The current tick
+     * @param onVisited Called with the index of each visited cell
+     * @return The sum of the intensities of the visited cells
+     */
+    double visitLive(long tick, IntConsumer onVisited) {
+        double total = 0;
+        for (int i = 0; i < this.liveCount; i++) {
+            final int cell = this.live[i];
+            onVisited.accept(cell);
+            total += this.intensity(cell, tick);
+        }
+        return total;
+    }
+
+    /**
+     * Drop the cells which are completely evaporated from the cells which received a pheromone
+     * since the last compaction. The cost is proportional to the number of touched cells and not to
+     * the size of the grid.
+     *
+     * @param tick The current tick
+     * @param onDropped Called with the index of each dropped cell, before it is dropped
+     * @return The sum of the intensities of the kept cells
+     */
+    double compact(long tick, IntConsumer onDropped) {
+        int kept = 0;
+        double total = 0;
+        for (int i = 0; i < this.liveCount; i++) {
+            final int cell = this.live[i];
+            final float intensity = this.intensity(cell, tick);
+            if (intensity > 0) {
+                this.live[kept++] = cell;
+                total += intensity;
+                continue;
+            }
+            onDropped.accept(cell);
+            this.intensities[cell] = 0;
+            this.listed.clear(cell);
+        }
+        this.liveCount = kept;
+        return total;
+    }
+
+    /**
+     * Mask the cells matching the given predicate, typically the cells inside an obstacle.
+     * Pheromones never diffuse into masked cells.
+     *
+     * @param isMasked The predicate called with the index of each cell
+     */
+    void mask(IntPredicate isMasked) {
+        for (int cell = 0; cell < this.grid.size(); cell++) {
+            if (isMasked.test(cell)) {
+                this.masked[cell >>> 6] |= 1L << cell;
+                final int row = this.grid.rowOf(cell);
+                this.maskedRows.set(Math.max(0, row - 1), Math.min(this.grid.rows(), row + 2));
+            }
+        }
+    }
+
+    /**
+     * Check if the diffusion of the pheromones is enabled
+     *
+     * @return True if the pheromones diffuse at each tick
+     */
+    boolean isDiffusing() {
+        return this.diffused != null;
+    }
+
+    /**
+     * Spread the pheromones to the neighbouring cells and evaporate them. Each unmasked cell
+     * exchanges with each of its unmasked orthogonal neighbours a quarter of the diffusion rate of
+     * their difference of intensity, so the total intensity is only changed by the evaporation.
+     * Stripes of rows are computed in parallel from the front buffer into the back buffer, then the
+     * buffers are swapped. Does nothing if the diffusion is disabled.
+     *
+     * <p>As the stencil visits every cell, it also collects the cells whose rounded intensity
+     * differs from the published one and sums the intensities, so the changes are published without
+     * another pass over the live cells.
+     *
+     * @param tick The current tick
+     * @param onChanged Called with the index of each cell whose intensity should be published,
+     *     after the step, null if the changes are not published
+     * @return The sum of the intensities of all the cells after the step, 0 if the diffusion is
+     *     disabled
+     */
+    double diffuse(long tick, IntConsumer onChanged) {
+        if (this.diffused == null) {
+            return 0;
+        }
+        final float evaporation = 1f / this.timeout;
+        final boolean track = onChanged != null;
+        IntStream.range(0, this.reached.length)
+                .parallel()
+                .forEach((int stripe) -> this.diffuseStripe(stripe, evaporation, track));
+        final float[] front = this.diffused;
+        this.diffused = this.intensities;
+        this.intensities = front;
+        double total = 0;
+        for (int stripe = 0; stripe < this.reached.length; stripe++) {
+            // Every cell with a pheromone is live, so only the cells reached by this step are new
+            for (int i = 0; i < this.reachedCounts[stripe]; i++) {
+                this.listIfLive(this.reached[stripe][i], tick);
+            }
+            for (int i = 0; i < this.changedCounts[stripe]; i++) {
+                onChanged.accept(this.changed[stripe][i]);
+            }
+            total += this.stripeTotals[stripe];
+        }
+        return total;
+    }
+
+    /**
+     * Compute the diffusion stencil of the rows of the given stripe into the back buffer and
+     * collect the cells reached by a pheromone for the first time
+     *
+     * @param stripe The index of the stripe
+     * @param evaporation The intensity lost by each cell
+     * @param track True to collect the cells whose rounded intensity differs from the published one
+     */
+    private void diffuseStripe(int stripe, float evaporation, boolean track) {
+        final float[] source = this.intensities, target = this.diffused;
+        final float exchange = this.diffusionRate / 4;
+        final int columns = this.grid.columns(), rows = this.grid.rows();
+        this.reachedCounts[stripe] = 0;
+        this.changedCounts[stripe] = 0;
+        double total = 0;
+        for (int row = stripe * STRIPE_ROWS;
+                row < Math.min(rows, (stripe + 1) * STRIPE_ROWS);
+                row++) {
+            if (row == 0 || row == rows - 1 || this.maskedRows.get(row) || columns < 3) {
+                for (int column = 0; column < columns; column++) {
+                    total += this.diffuseCell(stripe, row, column, exchange, evaporation, track);
+                }
+                continue;
+            }
+            // Fast path, no masked cell around the row, only its first and last cells need bound
+            // checks
+            total += this.diffuseCell(stripe, row, 0, exchange, evaporation, track);
+            final int first = row * columns;
+            for (int cell = first + 1; cell < first + columns - 1; cell++) {
+                final float current = source[cell];
+                final float flow =
+                        source[cell - 1]
+                                + source[cell + 1]
+                                + source[cell - columns]
+                                + source[cell + columns]
+                                - 4 * current;
+                final float next = Math.max(0, current + exchange * flow - evaporation);
+                target[cell] = next;
+                if (current <= 0 && next > 0) {
+                    PheromoneGrid.append(this.reached, this.reachedCounts, stripe, cell);
+                }
+                if (track && Math.round(next) != this.published[cell]) {
+                    PheromoneGrid.append(this.changed, this.changedCounts, stripe, cell);
+                }
+                total += next;
+            }
+            total += this.diffuseCell(stripe, row, columns - 1, exchange, evaporation, track);
+        }
+        this.stripeTotals[stripe] = total;
+    }
+
+    /**
+     * Compute the diffusion stencil of a single cell, checking the bounds of the grid and the
+     * masked neighbours
+     *
+     * @param stripe The index of the stripe containing the cell
+     * @param row The row of the cell
+     * @param column The column of the cell
+     * @param exchange The part of the difference of intensity exchanged with each neighbour
+     * @param evaporation The intensity lost by the cell
+     * @param track True to collect the cell if its rounded intensity differs from the published one
+     * @return The new intensity of the cell
+     */
+    private float diffuseCell(
+            int stripe, int row, int column, float exchange, float evaporation, boolean track) {
+        final float[] source = this.intensities;
+        final int columns = this.grid.columns();
+        final int cell = this.grid.cell(column, row);
+        final float current = source[cell];
+        if (this.isMasked(cell)) {
+            // A deposit may have landed in a masked cell, its pheromone is dropped
+            this.diffused[cell] = 0;
+            if (track && this.published[cell] != 0) {
+                PheromoneGrid.append(this.changed, this.changedCounts, stripe, cell);
+            }
+            return 0;
+        }
+        float flow = 0;
+        if (column > 0 && !this.isMasked(cell - 1)) {
+            flow += source[cell - 1] - current;
+        }
+        if (column < columns - 1 && !this.isMasked(cell + 1)) {
+            flow += source[cell + 1] - current;
+        }
+        if (row > 0 && !this.isMasked(cell - columns)) {
+            flow += source[cell - columns] - current;
+        }
+        if (row < this.grid.rows() - 1 && !this.isMasked(cell + columns)) {
+            flow += source[cell + columns] - current;
+        }
+        final float next = Math.max(0, current + exchange * flow - evaporation);
+        this.diffused[cell] = next;
+        if (current <= 0 && next > 0) {
+            PheromoneGrid.append(this.reached, this.reachedCounts, stripe, cell);
+        }
+        if (track && Math.round(next) != this.published[cell]) {
+            PheromoneGrid.append(this.changed, this.changedCounts, stripe, cell);
+        }
+        return next;
+    }
+
+    /**
+     * Record a cell in the buffer of a stripe, during the diffusion of the stripe
+     *
+     * @param buffers The buffers of the stripes
+     * @param counts The number of cells of each buffer
+     * @param stripe The index of the stripe containing the cell
+     * @param cell The index of the cell
+     */
+    private static void append(int[][] buffers, int[] counts, int stripe, int cell) {
+        if (counts[stripe] == buffers[stripe].length) {
+            buffers[stripe] = Arrays.copyOf(buffers[stripe], buffers[stripe].length * 2);
+        }
+        buffers[stripe][counts[stripe]++] = cell;
+    }
+
+    /**
+     * Check if the given cell is masked
+     *
+     * @param cell The index of the cell
+     * @return True if the cell is masked
+     */
+    private boolean isMasked(int cell) {
+        return (this.masked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Add the given cell to the live cells if it contains a pheromone and is not listed yet
+     *
+     * @param cell The index of the cell
+     * @param tick The current tick
+     */
+    private void listIfLive(int cell, long tick) {
+        if (this.listed.get(cell) || this.intensities[cell] <= 0) {
+            return;
+        }
+        this.listed.set(cell);
+        this.lastUpdates[cell] = (int) tick;
+        if (this.liveCount == this.live.length) {
+            this.live = Arrays.copyOf(this.live, this.live.length * 2);
+        }
+        this.live[this.liveCount++] = cell;
+    }
+
+    /**
+     * Call the given consumer for each cell containing a pheromone whose center is within the given
+     * radius of the given point. Only the cells of the bounding square of the circle are visited.
+     *
+     * @param x The x coordinate of the center of the neighbourhood
+     * @param y The y coordinate of the center of the neighbourhood
+     * @param radius The radius of the neighbourhood
+     * @param tick The current tick
+     * @param consumer The consumer to call with the index of each live cell of the neighbourhood
+     */
+    void forEachLiveCellInRadius(
+            double x, double y, double radius, long tick, IntConsumer consumer) {
+        final int fromColumn = this.grid.column(x - radius),
+                toColumn = this.grid.column(x + radius);
+        final int fromRow = this.grid.row(y - radius), toRow = this.grid.row(y + radius);
+        final double squaredRadius = radius * radius;
+        final double cellSize = this.grid.cellSize();
+        for (int row = fromRow; row <= toRow; row++) {
+            final double dy = (row + 0.5) * cellSize - y;
+            for (int column = fromColumn; column <= toColumn; column++) {
+                final int cell = this.grid.cell(column, row);
+                if (this.intensity(cell, tick) <= 0) {
+                    continue;
+                }
+                final double dx = (column + 0.5) * cellSize - x;
+                if (dx * dx + dy * dy <= squaredRadius) {
+                    consumer.accept(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if there is no pheromone on the grid. The evaporated cells are only counted out by the
+     * compaction, so the grid may be empty even if this method returns false.
+     *
+     * @return True if no cell received a pheromone since the last compaction
+     */
+    boolean isEmpty() {
+        return this.liveCount == 0;
+    }
+
+    /**
+     * Get the length of the side of a cell
+     *
+     * @return The size of a cell
+     */
+    int getCellSize() {
+        return (int) this.grid.cellSize();
+    }
+
+    /**
+     * Get the number of cells which received a pheromone since the last compaction
+     *
+     * @return The number of live cells
+     */
+    int getLiveCount() {
+        return this.liveCount;
+    }
+
+    /**
+     * Get the number of columns of the grid
+     *
+     * @return The number of columns
+     */
+    int getColumns() {
+        return this.grid.columns();
+    }
+
+    /**
+     * Get the number of rows of the grid
+     *
+     * @return The number of rows
+     */
+    int getRows() {
+        return this.grid.rows();
+    }
+}
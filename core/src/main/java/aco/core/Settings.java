@@ -4,6 +4,7 @@
 package aco.core;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,8 +39,17 @@ public record Settings(
         int pheromoneIntensityTimeoutMs,
         double antsSemiMinorAxis,
         double antsSemiMajorAxis,
-        int threadpoolSize,
-        int numberOfClusters) {
+        int numberOfClusters,
+        int ticksPerSecond,
+        boolean asFastAsPossible,
+        int pheromoneCellSize,
+        int antSensingRadius,
+        int pheromoneCompactionIntervalMs,
+        long seed,
+        int occupancyCellSize,
+        int pheromoneDiffusionRate,
+        int targetFramesPerSecond,
+        int antDetailThreshold) {
 
     public SettingsBuilder builder() {
         return new SettingsBuilder(
@@ -64,10 +74,21 @@ public record Settings(
                 this.pheromoneIntensityTimeoutMs,
                 this.antsSemiMajorAxis,
                 this.antsSemiMinorAxis,
-                this.threadpoolSize,
-                this.numberOfClusters);
+                this.numberOfClusters,
+                this.ticksPerSecond,
+                this.asFastAsPossible,
+                this.pheromoneCellSize,
+                this.antSensingRadius,
+                this.pheromoneCompactionIntervalMs,
+                this.seed,
+                this.occupancyCellSize,
+                this.pheromoneDiffusionRate,
+                this.targetFramesPerSecond,
+                this.antDetailThreshold);
     }
 
+    // The thread pool size of previous versions is ignored, the phases run on the common pool
+    @JsonIgnoreProperties({"thread-pool-size"})
     public static class SettingsBuilder {
 
         private final Set<Subscriber> listeners;
@@ -104,9 +125,19 @@ public record Settings(
         private int pheromoneEvaporationTimeout;
         private double antSemiMinorAxis, antSemiMajorAxis;
 
-        private int threadpoolSize;
         private int numberOfClusters;
 
+        private int ticksPerSecond;
+        private boolean asFastAsPossible;
+        private int pheromoneCellSize;
+        private int antSensingRadius;
+        private int pheromoneCompactionIntervalMs;
+        private long seed;
+        private int occupancyCellSize;
+        private int pheromoneDiffusionRate;
+        private int targetFramesPerSecond;
+        private int antDetailThreshold;
+
         public SettingsBuilder() {
             this(
                     Color.YELLOW,
@@ -130,8 +161,17 @@ public record Settings(
                     1000,
                     5,
                     2,
-                    5000,
-                    10000);
+                    10000,
+                    60,
+                    false,
+                    2,
+                    40,
+                    250,
+                    0L,
+                    10,
+                    0,
+                    60,
+                    2000);
         }
 
         public SettingsBuilder(
@@ -156,8 +196,17 @@ public record Settings(
                 int pheromoneEvaporationTimeout,
                 double antSemiMajorAxis,
                 double antSemiMinorAxis,
-                int threadpoolSize,
-                int numberOfClusters) {
+                int numberOfClusters,
+                int ticksPerSecond,
+                boolean asFastAsPossible,
+                int pheromoneCellSize,
+                int antSensingRadius,
+                int pheromoneCompactionIntervalMs,
+                long seed,
+                int occupancyCellSize,
+                int pheromoneDiffusionRate,
+                int targetFramesPerSecond,
+                int antDetailThreshold) {
             this.listeners = new HashSet<>();
             // TODO: Add more granular settings (max, min value for sliders etc.)
             this.sourcePointColor = sourcePointColor;
@@ -181,8 +230,17 @@ public record Settings(
             this.pheromoneEvaporationTimeout = pheromoneEvaporationTimeout;
             this.antSemiMajorAxis = antSemiMajorAxis;
             this.antSemiMinorAxis = antSemiMinorAxis;
-            this.threadpoolSize = threadpoolSize;
             this.numberOfClusters = numberOfClusters;
+            this.ticksPerSecond = ticksPerSecond;
+            this.asFastAsPossible = asFastAsPossible;
+            this.pheromoneCellSize = pheromoneCellSize;
+            this.antSensingRadius = antSensingRadius;
+            this.pheromoneCompactionIntervalMs = pheromoneCompactionIntervalMs;
+            this.seed = seed;
+            this.occupancyCellSize = occupancyCellSize;
+            this.pheromoneDiffusionRate = pheromoneDiffusionRate;
+            this.targetFramesPerSecond = targetFramesPerSecond;
+            this.antDetailThreshold = antDetailThreshold;
         }
 
         /**
@@ -270,7 +328,6 @@ public record Settings(
         }
 
         public SettingsBuilder fromJSON(String jsonString) throws JsonProcessingException {
-            System.out.println(jsonString);
             this.reader().readValue(jsonString);
             return this;
         }
@@ -609,17 +666,6 @@ public record Settings(
             this.notifyListeners(SettingsBuilder.Subscriber.Event.SOURCE_POINT_RADIUS_CHANGED);
         }
 
-        /**
-         * Update the size of the thread pool
-         *
-         * @param threadpoolSize The new size of the thread pool
-         */
-        @JsonSetter("thread-pool-size")
-        public void setThreadpoolSize(int threadpoolSize) {
-            this.threadpoolSize = threadpoolSize;
-            this.notifyListeners(SettingsBuilder.Subscriber.Event.THREAD_POOL_SIZE_CHANGED);
-        }
-
         @JsonSetter("total-clusters")
         public void setNumberOfClusters(int nbClusters) {
             this.numberOfClusters = nbClusters;
@@ -678,11 +724,6 @@ public record Settings(
             return this.pheromoneEvaporationTimeout;
         }
 
-        @JsonGetter("thread-pool-size")
-        public int getThreadpoolSize() {
-            return this.threadpoolSize;
-        }
-
         /**
          * Get the total number of clusters
          *
@@ -748,6 +789,236 @@ public record Settings(
             this.notifyListeners(SettingsBuilder.Subscriber.Event.ANT_SEMI_MAJOR_AXIS_CHANGED);
         }
 
+        /**
+         * Get the number of simulation ticks per second
+         *
+         * @return The target number of ticks per second
+         */
+        @JsonGetter("ticks-per-second")
+        public int getTicksPerSecond() {
+            return this.ticksPerSecond;
+        }
+
+        /**
+         * Update the number of simulation ticks per second. This is both the pace of the simulation
+         * and the logical duration of a tick used for spawning and evaporation.
+         *
+         * @param ticksPerSecond The new number of ticks per second
+         */
+        @JsonSetter("ticks-per-second")
+        public void setTicksPerSecond(int ticksPerSecond) {
+            SettingsBuilder.NumberSpinnerConfig ticksConfig = this.ticksPerSecondConfig();
+            if (ticksConfig.verify(ticksPerSecond)) {
+                this.ticksPerSecond = ticksPerSecond;
+                this.notifyListeners(SettingsBuilder.Subscriber.Event.TICKS_PER_SECOND_CHANGED);
+                return;
+            }
+            throw new IllegalArgumentException(
+                    "%d <= %d <= %d is not true"
+                            .formatted(ticksConfig.min(), ticksPerSecond, ticksConfig.max()));
+        }
+
+        /**
+         * Check if the simulation runs as fast as possible instead of the target tick rate
+         *
+         * @return True if ticks are not paced
+         */
+        @JsonGetter("as-fast-as-possible")
+        public boolean isAsFastAsPossible() {
+            return this.asFastAsPossible;
+        }
+
+        /**
+         * Enable or disable the "as fast as possible" mode of the simulation
+         *
+         * @param asFastAsPossible True to run the ticks without pacing
+         */
+        @JsonSetter("as-fast-as-possible")
+        public void setAsFastAsPossible(boolean asFastAsPossible) {
+            this.asFastAsPossible = asFastAsPossible;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.AS_FAST_AS_POSSIBLE_CHANGED);
+        }
+
+        /**
+         * Get the length of the side of a cell of the pheromone grid
+         *
+         * @return The size of a pheromone cell in pixels
+         */
+        @JsonGetter("pheromone-cell-size")
+        public int getPheromoneCellSize() {
+            return this.pheromoneCellSize;
+        }
+
+        /**
+         * Update the length of the side of a cell of the pheromone grid
+         *
+         * @param pheromoneCellSize The new size of a pheromone cell in pixels
+         */
+        @JsonSetter("pheromone-cell-size")
+        public void setPheromoneCellSize(int pheromoneCellSize) {
+            this.pheromoneCellSize = pheromoneCellSize;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.PHEROMONE_CELL_SIZE_CHANGED);
+        }
+
+        /**
+         * Get the radius around an ant in which it senses the pheromones
+         *
+         * @return The sensing radius of the ants in pixels
+         */
+        @JsonGetter("ant-sensing-radius")
+        public int getAntSensingRadius() {
+            return this.antSensingRadius;
+        }
+
+        /**
+         * Update the radius around an ant in which it senses the pheromones
+         *
+         * @param antSensingRadius The new sensing radius of the ants in pixels
+         */
+        @JsonSetter("ant-sensing-radius")
+        public void setAntSensingRadius(int antSensingRadius) {
+            this.antSensingRadius = antSensingRadius;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.ANT_SENSING_RADIUS_CHANGED);
+        }
+
+        /**
+         * Get the interval between two compactions of the pheromone grid
+         *
+         * @return The compaction interval in milliseconds, 0 if the compaction is disabled
+         */
+        @JsonGetter("pheromone-compaction-interval-ms")
+        public int getPheromoneCompactionIntervalMs() {
+            return this.pheromoneCompactionIntervalMs;
+        }
+
+        /**
+         * Update the interval between two compactions of the pheromone grid
+         *
+         * @param pheromoneCompactionIntervalMs The new compaction interval in milliseconds, 0 to
+         *     disable the compaction
+         */
+        @JsonSetter("pheromone-compaction-interval-ms")
+        public void setPheromoneCompactionIntervalMs(int pheromoneCompactionIntervalMs) {
+            this.pheromoneCompactionIntervalMs = pheromoneCompactionIntervalMs;
+            this.notifyListeners(
+                    SettingsBuilder.Subscriber.Event.PHEROMONE_COMPACTION_INTERVAL_CHANGED);
+        }
+
+        /**
+         * Get the seed of the random draws of the simulation
+         *
+         * @return The seed of the simulation
+         */
+        @JsonGetter("seed")
+        public long getSeed() {
+            return this.seed;
+        }
+
+        /**
+         * Update the seed of the random draws of the simulation. Two runs with the same seed and
+         * settings on the same map are identical
+         *
+         * @param seed The new seed of the simulation
+         */
+        @JsonSetter("seed")
+        public void setSeed(long seed) {
+            this.seed = seed;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.SEED_CHANGED);
+        }
+
+        /**
+         * Get the length of the side of a cell of the occupancy grid. The obstacles are rasterised
+         * on this grid for the collision and line of sight checks, and the distance fields to the
+         * source and destination points are computed on it
+         *
+         * @return The size of an occupancy cell in pixels, 0 if the occupancy grid is disabled
+         */
+        @JsonGetter("occupancy-cell-size")
+        public int getOccupancyCellSize() {
+            return this.occupancyCellSize;
+        }
+
+        /**
+         * Update the length of the side of a cell of the occupancy grid
+         *
+         * @param occupancyCellSize The new size of an occupancy cell in pixels, 0 to disable the
+         *     occupancy grid
+         */
+        @JsonSetter("occupancy-cell-size")
+        public void setOccupancyCellSize(int occupancyCellSize) {
+            this.occupancyCellSize = occupancyCellSize;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.OCCUPANCY_CELL_SIZE_CHANGED);
+        }
+
+        /**
+         * Get the percentage of the intensity of a pheromone cell spread to its neighbouring cells
+         * at each tick
+         *
+         * @return The diffusion rate in percent, 0 if the diffusion is disabled
+         */
+        @JsonGetter("pheromone-diffusion-rate")
+        public int getPheromoneDiffusionRate() {
+            return this.pheromoneDiffusionRate;
+        }
+
+        /**
+         * Update the percentage of the intensity of a pheromone cell spread to its neighbouring
+         * cells at each tick
+         *
+         * @param pheromoneDiffusionRate The new diffusion rate in percent, 0 to disable the
+         *     diffusion
+         */
+        @JsonSetter("pheromone-diffusion-rate")
+        public void setPheromoneDiffusionRate(int pheromoneDiffusionRate) {
+            this.pheromoneDiffusionRate = pheromoneDiffusionRate;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.PHEROMONE_DIFFUSION_RATE_CHANGED);
+        }
+
+        /**
+         * Get the number of frames per second the preview is rendered at
+         *
+         * @return The target number of rendered frames per second
+         */
+        @JsonGetter("target-frames-per-second")
+        public int getTargetFramesPerSecond() {
+            return this.targetFramesPerSecond;
+        }
+
+        /**
+         * Update the number of frames per second the preview is rendered at. Rendering is
+         * independent of the pace of the simulation.
+         *
+         * @param targetFramesPerSecond The new number of frames per second
+         */
+        @JsonSetter("target-frames-per-second")
+        public void setTargetFramesPerSecond(int targetFramesPerSecond) {
+            this.targetFramesPerSecond = targetFramesPerSecond;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.TARGET_FRAMES_PER_SECOND_CHANGED);
+        }
+
+        /**
+         * Get the number of ants above which the preview draws each ant as a single pixel
+         *
+         * @return The number of ants above which ants are drawn as pixels
+         */
+        @JsonGetter("ant-detail-threshold")
+        public int getAntDetailThreshold() {
+            return this.antDetailThreshold;
+        }
+
+        /**
+         * Update the number of ants above which the preview draws each ant as a single pixel
+         * instead of an ellipse. The preview may switch to pixels below this number if drawing the
+         * ellipses exceeds its frame time budget.
+         *
+         * @param antDetailThreshold The new number of ants above which ants are drawn as pixels
+         */
+        @JsonSetter("ant-detail-threshold")
+        public void setAntDetailThreshold(int antDetailThreshold) {
+            this.antDetailThreshold = antDetailThreshold;
+            this.notifyListeners(SettingsBuilder.Subscriber.Event.ANT_DETAIL_THRESHOLD_CHANGED);
+        }
+
         /**
          * Get the color of a pheromone
          *
@@ -847,25 +1118,102 @@ public record Settings(
             return builder.build();
         }
 
-        public SettingsBuilder.NumberSpinnerConfig threadPoolSizeConfig() {
+        public SettingsBuilder.NumberSpinnerConfig numberOfClustersConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(3)
+                    .max(Integer.MAX_VALUE)
+                    .step(1)
+                    .supplier(this::getNumberOfClusters)
+                    .event(SettingsBuilder.Subscriber.Event.NUMBER_OF_CLUSTERS_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig ticksPerSecondConfig() {
             SettingsBuilder.NumberSpinnerConfig.Builder builder =
                     new SettingsBuilder.NumberSpinnerConfig.Builder();
             builder.min(1)
                     .max(10000)
                     .step(10)
-                    .supplier(this::getThreadpoolSize)
-                    .event(SettingsBuilder.Subscriber.Event.THREAD_POOL_SIZE_CHANGED);
+                    .supplier(this::getTicksPerSecond)
+                    .event(SettingsBuilder.Subscriber.Event.TICKS_PER_SECOND_CHANGED);
             return builder.build();
         }
 
-        public SettingsBuilder.NumberSpinnerConfig numberOfClustersConfig() {
+        public SettingsBuilder.NumberSpinnerConfig pheromoneCellSizeConfig() {
             SettingsBuilder.NumberSpinnerConfig.Builder builder =
                     new SettingsBuilder.NumberSpinnerConfig.Builder();
-            builder.min(3)
-                    .max(Integer.MAX_VALUE)
+            builder.min(1)
+                    .max(100)
                     .step(1)
-                    .supplier(this::getNumberOfClusters)
-                    .event(SettingsBuilder.Subscriber.Event.NUMBER_OF_CLUSTERS_CHANGED);
+                    .supplier(this::getPheromoneCellSize)
+                    .event(SettingsBuilder.Subscriber.Event.PHEROMONE_CELL_SIZE_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig antSensingRadiusConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(1)
+                    .max(1000)
+                    .step(5)
+                    .supplier(this::getAntSensingRadius)
+                    .event(SettingsBuilder.Subscriber.Event.ANT_SENSING_RADIUS_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig pheromoneCompactionIntervalMsConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(0)
+                    .max(60000)
+                    .step(50)
+                    .supplier(this::getPheromoneCompactionIntervalMs)
+                    .event(SettingsBuilder.Subscriber.Event.PHEROMONE_COMPACTION_INTERVAL_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig occupancyCellSizeConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(0)
+                    .max(100)
+                    .step(1)
+                    .supplier(this::getOccupancyCellSize)
+                    .event(SettingsBuilder.Subscriber.Event.OCCUPANCY_CELL_SIZE_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig pheromoneDiffusionRateConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(0)
+                    .max(100)
+                    .step(5)
+                    .supplier(this::getPheromoneDiffusionRate)
+                    .event(SettingsBuilder.Subscriber.Event.PHEROMONE_DIFFUSION_RATE_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig targetFramesPerSecondConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(1)
+                    .max(240)
+                    .step(1)
+                    .supplier(this::getTargetFramesPerSecond)
+                    .event(SettingsBuilder.Subscriber.Event.TARGET_FRAMES_PER_SECOND_CHANGED);
+            return builder.build();
+        }
+
+        public SettingsBuilder.NumberSpinnerConfig antDetailThresholdConfig() {
+            SettingsBuilder.NumberSpinnerConfig.Builder builder =
+                    new SettingsBuilder.NumberSpinnerConfig.Builder();
+            builder.min(0)
+                    .max(Integer.MAX_VALUE)
+                    .step(100)
+                    .supplier(this::getAntDetailThreshold)
+                    .event(SettingsBuilder.Subscriber.Event.ANT_DETAIL_THRESHOLD_CHANGED);
             return builder.build();
         }
 
@@ -898,8 +1246,17 @@ public record Settings(
                     this.pheromoneEvaporationTimeout,
                     this.antSemiMinorAxis,
                     this.antSemiMajorAxis,
-                    this.threadpoolSize,
-                    this.numberOfClusters);
+                    this.numberOfClusters,
+                    this.ticksPerSecond,
+                    this.asFastAsPossible,
+                    this.pheromoneCellSize,
+                    this.antSensingRadius,
+                    this.pheromoneCompactionIntervalMs,
+                    this.seed,
+                    this.occupancyCellSize,
+                    this.pheromoneDiffusionRate,
+                    this.targetFramesPerSecond,
+                    this.antDetailThreshold);
         }
 
         /**
@@ -910,6 +1267,15 @@ public record Settings(
          */
         private void validate() throws IllegalArgumentException {
             // TODO: Complete methods implementation
+            // The tick rate divides the durations of the simulation, the constructors do not check
+            // it
+            SettingsBuilder.NumberSpinnerConfig ticksConfig = this.ticksPerSecondConfig();
+            if (!ticksConfig.verify(this.ticksPerSecond)) {
+                throw new IllegalArgumentException(
+                        "Ticks per second: %d <= %d <= %d is not true"
+                                .formatted(
+                                        ticksConfig.min(), this.ticksPerSecond, ticksConfig.max()));
+            }
         }
 
         /**
@@ -954,8 +1320,17 @@ public record Settings(
                 PHEROMONE_EVAPORATION_TIMEOUT_CHANGED,
                 ANT_SEMI_MAJOR_AXIS_CHANGED,
                 ANT_SEMI_MINOR_AXIS_CHANGED,
-                THREAD_POOL_SIZE_CHANGED,
-                NUMBER_OF_CLUSTERS_CHANGED;
+                NUMBER_OF_CLUSTERS_CHANGED,
+                TICKS_PER_SECOND_CHANGED,
+                AS_FAST_AS_POSSIBLE_CHANGED,
+                PHEROMONE_CELL_SIZE_CHANGED,
+                ANT_SENSING_RADIUS_CHANGED,
+                PHEROMONE_COMPACTION_INTERVAL_CHANGED,
+                SEED_CHANGED,
+                OCCUPANCY_CELL_SIZE_CHANGED,
+                PHEROMONE_DIFFUSION_RATE_CHANGED,
+                TARGET_FRAMES_PER_SECOND_CHANGED,
+                ANT_DETAIL_THRESHOLD_CHANGED;
             }
         }
 
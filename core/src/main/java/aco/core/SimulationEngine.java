@@ -0,0 +1,360 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-step simulation engine of a board. Each logical tick runs the phases spawn, move, deposit,
+ * evaporate and publish one after the other. A phase may be executed in parallel but it always
+ * completes before the next one starts, so the phases never observe each other's partial state.
+ *
+ * <p>Once started, ticks are executed by a single worker thread. Each tick task submits the next
+ * one, so pausing the executor parks the worker before the next tick without using any CPU, and
+ * stopping it lets the worker terminate after the current tick. Ticks are executed under a lock,
+ * thus ticks executed on the calling thread by {@link #step(long)} never overlap with the ticks of
+ * the worker.
+ *
+ * <p>The executor of the worker is only created on first use, so a board driven through {@link
+ * #step(long)} only, as by the batch runners, never owns an executor nor a thread.
+ */
+class SimulationEngine {
+
+    private final Board board;
+    private final long tickPeriodNanos;
+    private final boolean asFastAsPossible;
+    /*
+       Created on first use, null until then
+    */
+    private PausableThreadPoolExecutor executor;
+    private final ReentrantLock tickLock;
+    private final Runnable tickTask;
+    private final SimulationMetrics metrics;
+
+    private volatile boolean started;
+    private volatile boolean stopped;
+    /*
+       Set under the tick lock, so a tick task checking it under the same lock never starts a tick
+       once the engine is paused
+    */
+    private volatile boolean paused;
+    private volatile long tick;
+    /*
+       Set once the metrics are registered, on the first tick whatever the thread executing it
+    */
+    private volatile boolean registered;
+    /*
+       The time at which the worker should execute its next tick, or the scheduled start of the
+       tick in progress. Only written by the worker, read by the metrics
+    */
+    private volatile long deadline;
+
+    /**
+     * Creates a simulation engine for the given board
+     *
+     * @param board The board to simulate
+     * @param settings The settings containing the tick rate of the simulation
+     */
+    SimulationEngine(Board board, Settings settings) {
+        this.board = board;
+        this.tickPeriodNanos = TimeUnit.SECONDS.toNanos(1) / settings.ticksPerSecond();
+        this.asFastAsPossible = settings.asFastAsPossible();
+        this.tickLock = new ReentrantLock();
+        this.tickTask = this::runTick;
+        this.metrics = new SimulationMetrics(board, this::backlog);
+        this.tick = 0;
+    }
+
+    /**
+     * Start executing ticks on the worker thread. Does nothing if the engine is already started
+     *
+     * @throws IllegalStateException if the engine is stopped
+     */
+    synchronized void start() {
+        if (this.stopped) {
+            throw new IllegalStateException("The simulation is stopped");
+        }
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        this.deadline = System.nanoTime();
+        final PausableThreadPoolExecutor executor = this.executor();
+        if (this.paused) {
+            // Paused before being started, the first tick task waits for the engine to be resumed
+            executor.pause();
+        }
+        executor.execute(this.tickTask);
+    }
+
+    /**
+     * Get the executor of the worker thread, create it if needed
+     *
+     * @return The executor of the worker thread
+     */
+    private synchronized PausableThreadPoolExecutor executor() {
+        if (this.executor == null) {
+            // A single worker drives the ticks, phases are parallelised by themselves
+            this.executor = new PausableThreadPoolExecutor(1, 1);
+            this.executor.setThreadFactory(
+                    (Runnable runnable) -> new Thread(runnable, "aco-simulation"));
+        }
+        return this.executor;
+    }
+
+    /**
+     * Pause the execution of ticks on the worker thread. Returns once the current tick, if any, is
+     * completed, so the state of the board does not change until the engine is resumed.
+     */
+    synchronized void pause() {
+        if (this.executor != null) {
+            // The next tick task parks the worker before running
+            this.executor.pause();
+        }
+        // Wait for the tick in progress, a tick task past the executor checks the flag under the
+        // lock and does not start its tick
+        this.tickLock.lock();
+        try {
+            this.paused = true;
+        } finally {
+            this.tickLock.unlock();
+        }
+    }
+
+    /** Resume the execution of ticks on the worker thread */
+    synchronized void resume() {
+        this.paused = false;
+        if (this.executor != null) {
+            this.executor.resume();
+        }
+    }
+
+    /**
+     * Check if the execution of ticks on the worker thread is paused
+     *
+     * @return True if the engine is paused
+     */
+    boolean isPaused() {
+        return this.paused;
+    }
+
+    /**
+     * Execute the given number of ticks on the calling thread, as fast as possible. Meant to be
+     * called while the engine is paused or not started, otherwise these ticks are interleaved with
+     * the ticks of the worker.
+     *
+     * @param ticks The number of ticks to execute
+     */
+    void step(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            this.tickLock.lock();
+            try {
+                this.tick();
+            } finally {
+                this.tickLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stop the engine. Returns once the worker thread is terminated, the engine can't be started
+     * again afterwards.
+     */
+    void stop() {
+        this.stopped = true;
+        synchronized (this) {
+            // A tick registering the metrics concurrently either sees the engine stopped or
+            // registers them before they are unregistered here
+            this.metrics.unregister();
+        }
+        final PausableThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+        }
+        if (executor == null) {
+            // Never started, there is no worker to wait for
+            return;
+        }
+        // Release the worker if it is parked on a paused executor
+        executor.resume();
+        executor.shutdown();
+        try {
+            // The worker completes its current tick and does not submit the next one
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Execute one tick on the worker thread, wait until the next one and submit it. If the engine
+     * was paused meanwhile, the task is submitted again without executing its tick, it then waits
+     * on the paused executor until the engine is resumed.
+     */
+    private void runTick() {
+        if (this.stopped) {
+            return;
+        }
+        boolean ticked = false;
+        this.tickLock.lock();
+        try {
+            if (!this.paused) {
+                this.tick();
+                ticked = true;
+            }
+        } finally {
+            this.tickLock.unlock();
+        }
+        if (ticked && !this.asFastAsPossible) {
+            this.deadline += this.tickPeriodNanos;
+            final long delay = this.deadline - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            } else if (-delay > this.tickPeriodNanos) {
+                // If we are more than one tick late, do not try to catch up with a burst of ticks
+                this.deadline = System.nanoTime();
+            }
+        }
+        if (this.stopped) {
+            return;
+        }
+        try {
+            // Set before the first tick was submitted
+            this.executor.execute(this.tickTask);
+        } catch (RejectedExecutionException ignore) {
+            // The engine was stopped in the meantime
+        }
+    }
+
+    /** Execute one logical tick */
+    void tick() {
+        if (!this.registered) {
+            this.registerMetrics();
+        }
+        final long current = this.tick;
+        final SimulationEvents.Tick event = new SimulationEvents.Tick();
+        event.begin();
+        long start = System.nanoTime();
+        SimulationEvents.Phase phase = this.beginPhase();
+        this.board.spawnAnts(current);
+        start = this.endPhase(phase, SimulationMetrics.Phase.SPAWN, current, start);
+        phase = this.beginPhase();
+        this.board.moveAnts();
+        start = this.endPhase(phase, SimulationMetrics.Phase.MOVE, current, start);
+        phase = this.beginPhase();
+        this.board.depositPheromones();
+        start = this.endPhase(phase, SimulationMetrics.Phase.DEPOSIT, current, start);
+        phase = this.beginPhase();
+        this.board.evaporatePheromones(current);
+        start = this.endPhase(phase, SimulationMetrics.Phase.EVAPORATE, current, start);
+        phase = this.beginPhase();
+        this.board.publishFrame(current);
+        this.endPhase(phase, SimulationMetrics.Phase.PUBLISH, current, start);
+        this.tick = current + 1;
+        final int ants = this.board.getAntCount();
+        final int livePheromones = this.board.getLivePheromoneCount();
+        this.metrics.endTick(current + 1, ants, livePheromones);
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = current;
+            event.ants = ants;
+            event.livePheromones = livePheromones;
+            event.commit();
+        }
+    }
+
+    /**
+     * Create the flight recorder event of a phase and start its timing
+     *
+     * @return The started event
+     */
+    private SimulationEvents.Phase beginPhase() {
+        final SimulationEvents.Phase event = new SimulationEvents.Phase();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Record the time of a completed phase in the metrics and commit its flight recorder event
+     *
+     * @param event The event of the phase
+     * @param phase The completed phase
+     * @param tick The current tick
+     * @param start The value of {@link System#nanoTime()} when the phase started
+     * @return The current value of {@link System#nanoTime()}, the start of the next phase
+     */
+    private long endPhase(
+            SimulationEvents.Phase event, SimulationMetrics.Phase phase, long tick, long start) {
+        final long now = this.metrics.record(phase, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.phase = phase.name().toLowerCase();
+            event.ants = this.board.getAntCount();
+            event.livePheromones = this.board.getLivePheromoneCount();
+            event.commit();
+        }
+        return now;
+    }
+
+    /**
+     * Get the metrics of the simulation
+     *
+     * @return The metrics updated by the ticks
+     */
+    SimulationMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Register the metrics in the platform MBean server, unless the engine is stopped. Boards
+     * driven through {@link #step(long)} only are registered as well.
+     */
+    private synchronized void registerMetrics() {
+        if (!this.stopped) {
+            this.metrics.register();
+        }
+        this.registered = true;
+    }
+
+    /**
+     * Get the number of ticks due but not started yet, the ticks the worker is behind its schedule.
+     * The worker does not catch up with missed ticks, it starts a new schedule once more than one
+     * tick late, so the backlog counts the ticks missed since the scheduled start of the tick in
+     * progress.
+     *
+     * @return The number of late ticks, 0 if the worker is not running or runs the ticks as fast as
+     *     possible, without a schedule
+     */
+    private int backlog() {
+        if (!this.started || this.stopped || this.paused || this.asFastAsPossible) {
+            return 0;
+        }
+        final long late = System.nanoTime() - this.deadline;
+        return late <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, late / this.tickPeriodNanos);
+    }
+
+    /**
+     * Get the index of the current tick
+     *
+     * @return The number of ticks executed so far
+     */
+    long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Convert a duration in milliseconds to a number of ticks for the given settings
+     *
+     * @param settings The settings containing the tick rate
+     * @param ms The duration in milliseconds
+     * @return The number of ticks, at least one
+     */
+    static long msToTicks(Settings settings, long ms) {
+        return Math.max(1, Math.round(ms * settings.ticksPerSecond() / 1000.));
+    }
+}
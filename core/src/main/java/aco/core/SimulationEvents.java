@@ -0,0 +1,108 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the simulation, so the samples of a recording can be related to
+ * the ticks and their phases. Events are duration events without stack trace. Their fields are only
+ * computed if {@link Event#shouldCommit()} returns true, thus a disabled event costs the allocation
+ * of an event the JIT compiler removes and a check of a constant.
+ */
+final class SimulationEvents {
+
+    private static final String CATEGORY = "Ant Colony Optimization";
+
+    private SimulationEvents() {}
+
+    /** A whole tick of the simulation */
+    @Name("aco.Tick")
+    @Label("Simulation Tick")
+    @Category({CATEGORY, "Simulation"})
+    @Description("Execution of all the phases of a tick")
+    @StackTrace(false)
+    static final class Tick extends Event {
+
+        @Label("Tick")
+        long tick;
+
+        @Label("Ants")
+        int ants;
+
+        @Label("Live Pheromones")
+        @Description("Cells which received a pheromone since the last compaction")
+        int livePheromones;
+    }
+
+    /** A phase of a tick of the simulation */
+    @Name("aco.Phase")
+    @Label("Simulation Phase")
+    @Category({CATEGORY, "Simulation"})
+    @Description("Execution of a phase of a tick")
+    @StackTrace(false)
+    static final class Phase extends Event {
+
+        @Label("Tick")
+        long tick;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Ants")
+        int ants;
+
+        @Label("Live Pheromones")
+        @Description("Cells which received a pheromone since the last compaction")
+        int livePheromones;
+    }
+
+    /** The delivery of a frame to the frame subscribers */
+    @Name("aco.SubscriberDispatch")
+    @Label("Subscriber Dispatch")
+    @Category({CATEGORY, "Simulation"})
+    @Description("Delivery of the changes of a tick to the frame subscribers")
+    @StackTrace(false)
+    static final class SubscriberDispatch extends Event {
+
+        @Label("Tick")
+        long tick;
+
+        @Label("Subscribers")
+        int subscribers;
+
+        @Label("Ants")
+        int ants;
+
+        @Label("Changed Pheromones")
+        @Description("Cells whose intensity changed during the tick")
+        int changedPheromones;
+    }
+
+    /** The load of a map from a file */
+    @Name("aco.MapLoad")
+    @Label("Map Load")
+    @Category({CATEGORY, "Map"})
+    @Description("Deserialization of a map saved from the GUI")
+    @StackTrace(false)
+    static final class MapLoad extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Obstacles")
+        int obstacles;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+    }
+}
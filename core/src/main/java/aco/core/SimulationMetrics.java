@@ -0,0 +1,301 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the simulation of a board. The engine records the time of each phase of each tick in
+ * log-linear histograms, with 8 buckets per power of two so percentiles are within 12.5% of the
+ * measured times. Histograms and throughputs are computed over windows of {@link #WINDOW_NANOS}:
+ * the ticking thread owns the current window and publishes it once completed, so recording never
+ * synchronizes with the readers.
+ *
+ * <p>The metrics are exposed by {@link Board#getMetrics()} and registered as an MXBean named {@code
+ * aco.core:type=Simulation,name=board-<n>} from the first tick of the board until it is stopped,
+ * whether the ticks run on the worker or are stepped by the caller.
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+    /** The duration of a measurement window in nanoseconds */
+    public static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /*
+       Each power of two is divided in 2^SUB_BUCKET_BITS buckets
+    */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final AtomicInteger BOARDS = new AtomicInteger();
+
+    /** The phases of a tick, in their order of execution */
+    public enum Phase {
+        SPAWN,
+        MOVE,
+        DEPOSIT,
+        EVAPORATE,
+        PUBLISH
+    }
+
+    private final Board board;
+    private final IntSupplier queueDepth;
+    private final ObjectName name;
+
+    /*
+       The histograms of the current window, only accessed by the ticking thread
+    */
+    private final long[][] phaseTimes;
+    private long windowStart;
+    private long windowTicks;
+    private long windowAntSteps;
+
+    /*
+       Published by the ticking thread at the end of each tick or window
+    */
+    private volatile long[][] lastPhaseTimes;
+    private volatile long tick;
+    private volatile double ticksPerSecond;
+    private volatile double antStepsPerSecond;
+    private volatile int livePheromones;
+    private volatile double totalIntensity;
+
+    /**
+     * Creates the metrics of the given board
+     *
+     * @param board The board whose statistics are exposed
+     * @param queueDepth Supplies the number of ticks the worker is behind its schedule
+     */
+    SimulationMetrics(Board board, IntSupplier queueDepth) {
+        this.board = board;
+        this.queueDepth = queueDepth;
+        this.phaseTimes = new long[Phase.values().length][BUCKETS];
+        this.lastPhaseTimes = new long[Phase.values().length][BUCKETS];
+        this.windowStart = System.nanoTime();
+        try {
+            this.name =
+                    new ObjectName(
+                            "aco.core:type=Simulation,name=board-" + BOARDS.incrementAndGet());
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Record the time of a phase of the current tick. Called by the ticking thread only
+     *
+     * @param phase The completed phase
+     * @param start The value of {@link System#nanoTime()} when the phase started
+     * @return The current value of {@link System#nanoTime()}, the start of the next phase
+     */
+    long record(SimulationMetrics.Phase phase, long start) {
+        final long now = System.nanoTime();
+        this.phaseTimes[phase.ordinal()][SimulationMetrics.bucket(now - start)]++;
+        return now;
+    }
+
+    /**
+     * Complete a tick, publish the window if it is completed. Called by the ticking thread only
+     *
+     * @param tick The number of executed ticks
+     * @param antSteps The number of ants moved during the tick
+     * @param livePheromones The number of cells containing a pheromone
+     */
+    void endTick(long tick, long antSteps, int livePheromones) {
+        this.tick = tick;
+        this.livePheromones = livePheromones;
+        this.windowTicks++;
+        this.windowAntSteps += antSteps;
+        final long now = System.nanoTime();
+        final long elapsed = now - this.windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+        this.ticksPerSecond = this.windowTicks * 1e9 / elapsed;
+        this.antStepsPerSecond = this.windowAntSteps * 1e9 / elapsed;
+        final long[][] published = new long[this.phaseTimes.length][];
+        for (int i = 0; i < this.phaseTimes.length; i++) {
+            published[i] = this.phaseTimes[i].clone();
+            Arrays.fill(this.phaseTimes[i], 0);
+        }
+        this.lastPhaseTimes = published;
+        this.windowStart = now;
+        this.windowTicks = 0;
+        this.windowAntSteps = 0;
+    }
+
+    /**
+     * Set the sum of the intensities of all pheromones
+     *
+     * @param totalIntensity The total intensity
+     */
+    void setTotalIntensity(double totalIntensity) {
+        this.totalIntensity = totalIntensity;
+    }
+
+    /** Register the metrics in the platform MBean server, does nothing if already registered */
+    void register() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (!server.isRegistered(this.name)) {
+                server.registerMBean(this, this.name);
+            }
+        } catch (JMException e) {
+            // Monitoring is optional, the simulation runs without it
+        }
+    }
+
+    /** Unregister the metrics from the platform MBean server, does nothing if not registered */
+    void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(this.name)) {
+                server.unregisterMBean(this.name);
+            }
+        } catch (JMException e) {
+            // Already unregistered in the meantime
+        }
+    }
+
+    /**
+     * Get the given percentile of the time of a phase, over the last completed window
+     *
+     * @param phase The phase
+     * @param percentile The percentile, between 0 and 100
+     * @return The time in nanoseconds, 0 if no window is completed yet
+     */
+    public double phaseTimeNanos(SimulationMetrics.Phase phase, double percentile) {
+        final long[] buckets = this.lastPhaseTimes[phase.ordinal()];
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return SimulationMetrics.middle(i);
+            }
+        }
+        return SimulationMetrics.middle(buckets.length - 1);
+    }
+
+    @Override
+    public long getTick() {
+        return this.tick;
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    @Override
+    public double getAntStepsPerSecond() {
+        return this.antStepsPerSecond;
+    }
+
+    @Override
+    public int getLiveAnts() {
+        return this.board.getAntCount();
+    }
+
+    @Override
+    public long getArrivals() {
+        return this.board.getStatistics().arrivals();
+    }
+
+    @Override
+    public long getRoundTrips() {
+        return this.board.getStatistics().roundTrips();
+    }
+
+    @Override
+    public int getLivePheromones() {
+        return this.livePheromones;
+    }
+
+    @Override
+    public double getTotalIntensity() {
+        return this.totalIntensity;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return this.queueDepth.getAsInt();
+    }
+
+    @Override
+    public Map<String, Double> getPhaseTimeP50Micros() {
+        return this.phaseTimesMicros(50);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseTimeP90Micros() {
+        return this.phaseTimesMicros(90);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseTimeP99Micros() {
+        return this.phaseTimesMicros(99);
+    }
+
+    /**
+     * Get the given percentile of the time of each phase
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The times in microseconds by phase name, in the order of the phases
+     */
+    private Map<String, Double> phaseTimesMicros(double percentile) {
+        final Map<String, Double> times = new LinkedHashMap<>();
+        for (SimulationMetrics.Phase phase : SimulationMetrics.Phase.values()) {
+            times.put(phase.name().toLowerCase(), this.phaseTimeNanos(phase, percentile) / 1e3);
+        }
+        return times;
+    }
+
+    /**
+     * Get the bucket of the histograms containing the given time. Times below 2^SUB_BUCKET_BITS
+     * nanoseconds have their own bucket, each following power of two is split in SUB_BUCKETS
+     * buckets of equal width.
+     *
+     * @param nanos The time in nanoseconds
+     * @return The index of the bucket
+     */
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Get the middle of the range of times of the given bucket
+     *
+     * @param bucket The index of the bucket
+     * @return The time in nanoseconds
+     */
+    private static double middle(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        final long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lower + ((1L << shift) - 1) / 2.0;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics of a running simulation. Rates and phase times are measured
+ * over the last completed window of {@link SimulationMetrics#WINDOW_NANOS}, the other values are
+ * the current ones.
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * Get the number of executed ticks
+     *
+     * @return The index of the current tick
+     */
+    long getTick();
+
+    /**
+     * Get the number of ticks executed per second
+     *
+     * @return The tick throughput
+     */
+    double getTicksPerSecond();
+
+    /**
+     * Get the number of ant moves per second
+     *
+     * @return The ant step throughput
+     */
+    double getAntStepsPerSecond();
+
+    /**
+     * Get the number of ants on the board
+     *
+     * @return The number of spawned ants
+     */
+    int getLiveAnts();
+
+    /**
+     * Get the number of ants which arrived to the destination point
+     *
+     * @return The number of arrivals
+     */
+    long getArrivals();
+
+    /**
+     * Get the number of ants which came back to the source point after an arrival
+     *
+     * @return The number of round trips
+     */
+    long getRoundTrips();
+
+    /**
+     * Get the number of cells containing a pheromone
+     *
+     * @return The number of live pheromone cells
+     */
+    int getLivePheromones();
+
+    /**
+     * Get the sum of the intensities of all pheromones, as of the last compaction
+     *
+     * @return The total intensity
+     */
+    double getTotalIntensity();
+
+    /**
+     * Get the backlog of the worker of the simulation, the number of ticks it is behind its
+     * schedule. A single tick task is ever queued, so the backlog is measured against the tick rate
+     * instead of the executor queue.
+     *
+     * @return The number of ticks due but not started yet, 0 when running as fast as possible
+     */
+    int getQueueDepth();
+
+    /**
+     * Get the median time of each phase of a tick
+     *
+     * @return The median time in microseconds, by phase name
+     */
+    Map<String, Double> getPhaseTimeP50Micros();
+
+    /**
+     * Get the 90th percentile of the time of each phase of a tick
+     *
+     * @return The 90th percentile in microseconds, by phase name
+     */
+    Map<String, Double> getPhaseTimeP90Micros();
+
+    /**
+     * Get the 99th percentile of the time of each phase of a tick
+     *
+     * @return The 99th percentile in microseconds, by phase name
+     */
+    Map<String, Double> getPhaseTimeP99Micros();
+}
@@ -0,0 +1,168 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the closed-form intersection tests against {@link Area}, which the board used before. The
+ * ellipses of {@link Area} are approximated by Bezier curves which only match the exact ellipse on
+ * its axes, so the cases close to an outline are either on an axis or kept away from the outline.
+ */
+class GeometryTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void ellipseTangentToRectangleSideDoesNotIntersect() {
+        // The right end of the ellipse touches the left side of the rectangle at (2, 0)
+        assertFalse(Geometry.ellipseIntersectsRectangle(0, 0, 2, 1, 2, -1, 4, 1));
+        assertFalse(
+                GeometryTest.areasIntersect(
+                        GeometryTest.ellipse(0, 0, 2, 1), GeometryTest.rectangle(2, -1, 4, 1)));
+        assertTrue(Geometry.ellipseIntersectsRectangle(0, 0, 2, 1, 2 - EPSILON, -1, 4, 1));
+    }
+
+    @Test
+    void ellipseTouchingRectangleCornerDoesNotIntersect() {
+        // The corner of the rectangle is the right end of the ellipse
+        assertFalse(Geometry.ellipseIntersectsRectangle(0, 0, 2, 1, 2, 0, 4, 2));
+        assertFalse(
+                GeometryTest.areasIntersect(
+                        GeometryTest.ellipse(0, 0, 2, 1), GeometryTest.rectangle(2, 0, 4, 2)));
+        // The corner of the rectangle just outside and just inside the ellipse, on its diagonal
+        final double x = 2 * Math.cos(Math.PI / 4), y = Math.sin(Math.PI / 4);
+        for (double scale : new double[] {1.01, 0.99}) {
+            final Rectangle2D corner = GeometryTest.rectangle(x * scale, y * scale, 4, 4);
+            assertEquals(
+                    GeometryTest.areasIntersect(GeometryTest.ellipse(0, 0, 2, 1), corner),
+                    Geometry.ellipseIntersectsRectangle(0, 0, 2, 1, x * scale, y * scale, 4, 4));
+        }
+        assertTrue(Geometry.ellipseIntersectsRectangle(0, 0, 2, 1, x * 0.99, y * 0.99, 4, 4));
+    }
+
+    @Test
+    void tangentCirclesDoNotIntersect() {
+        assertFalse(Geometry.circlesIntersect(0, 0, 1, 2, 0, 1));
+        assertFalse(
+                GeometryTest.areasIntersect(
+                        GeometryTest.ellipse(0, 0, 1, 1), GeometryTest.ellipse(2, 0, 1, 1)));
+        assertTrue(Geometry.circlesIntersect(0, 0, 1, 2 - EPSILON, 0, 1));
+    }
+
+    @Test
+    void rectanglesSharingASideDoNotIntersect() {
+        assertFalse(Geometry.rectanglesIntersect(0, 0, 2, 2, 2, 0, 4, 2));
+        assertFalse(
+                GeometryTest.areasIntersect(
+                        GeometryTest.rectangle(0, 0, 2, 2), GeometryTest.rectangle(2, 0, 4, 2)));
+        assertTrue(Geometry.rectanglesIntersect(0, 0, 2, 2, 2 - EPSILON, 0, 4, 2));
+    }
+
+    @Test
+    void shapesAwayFromTheOutlinesMatchArea() {
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            final double cx = random.nextDouble(-10, 10), cy = random.nextDouble(-10, 10);
+            final double a = random.nextDouble(0.5, 5), b = random.nextDouble(0.5, 5);
+            final double minX = random.nextDouble(-10, 10), minY = random.nextDouble(-10, 10);
+            final double maxX = minX + random.nextDouble(0.5, 10);
+            final double maxY = minY + random.nextDouble(0.5, 10);
+            // Distance to the ellipse of the closest point of the rectangle, 1 on the outline
+            final double dx = (Math.max(minX, Math.min(cx, maxX)) - cx) / a;
+            final double dy = (Math.max(minY, Math.min(cy, maxY)) - cy) / b;
+            if (Math.abs(dx * dx + dy * dy - 1) < 0.01) {
+                continue;
+            }
+            assertEquals(
+                    GeometryTest.areasIntersect(
+                            GeometryTest.ellipse(cx, cy, a, b),
+                            GeometryTest.rectangle(minX, minY, maxX, maxY)),
+                    Geometry.ellipseIntersectsRectangle(cx, cy, a, b, minX, minY, maxX, maxY));
+        }
+    }
+
+    @Test
+    void segmentStartingInsideRectangleIntersects() {
+        assertTrue(Geometry.segmentIntersectsRectangle(1, 1, 10, 1, 0, 0, 2, 2));
+        assertEquals(0, Geometry.segmentEntry(1, 1, 10, 1, 0, 0, 2, 2));
+        assertEquals(1 / 9.0, Geometry.segmentExit(1, 1, 10, 1, 0, 0, 2, 2), EPSILON);
+        // Entirely inside
+        assertEquals(0, Geometry.segmentEntry(0.5, 0.5, 1.5, 1.5, 0, 0, 2, 2));
+        assertEquals(1, Geometry.segmentExit(0.5, 0.5, 1.5, 1.5, 0, 0, 2, 2));
+    }
+
+    @Test
+    void segmentCrossingRectangle() {
+        assertEquals(0.25, Geometry.segmentEntry(-1, 1, 3, 1, 0, 0, 2, 2), EPSILON);
+        assertEquals(0.75, Geometry.segmentExit(-1, 1, 3, 1, 0, 0, 2, 2), EPSILON);
+        assertFalse(Geometry.segmentIntersectsRectangle(-1, 3, 3, 3, 0, 0, 2, 2));
+        assertTrue(Double.isNaN(Geometry.segmentEntry(-1, 3, 3, 3, 0, 0, 2, 2)));
+    }
+
+    @Test
+    void segmentAlongOutlineIntersects() {
+        // The outline of the rectangle is part of it for segments
+        assertTrue(Geometry.segmentIntersectsRectangle(-1, 2, 3, 2, 0, 0, 2, 2));
+        assertTrue(Geometry.segmentIntersectsRectangle(-1, -1, 0, 0, 0, 0, 2, 2));
+    }
+
+    @Test
+    void zeroLengthSegment() {
+        assertTrue(Geometry.segmentIntersectsRectangle(1, 1, 1, 1, 0, 0, 2, 2));
+        assertEquals(0, Geometry.segmentEntry(1, 1, 1, 1, 0, 0, 2, 2));
+        assertEquals(1, Geometry.segmentExit(1, 1, 1, 1, 0, 0, 2, 2));
+        assertTrue(Geometry.segmentIntersectsRectangle(2, 1, 2, 1, 0, 0, 2, 2));
+        assertFalse(Geometry.segmentIntersectsRectangle(3, 1, 3, 1, 0, 0, 2, 2));
+        assertTrue(Double.isNaN(Geometry.segmentExit(3, 1, 3, 1, 0, 0, 2, 2)));
+    }
+
+    /**
+     * Check if the interiors of two shapes intersect, as the board did before the closed-form tests
+     *
+     * @param first The first shape
+     * @param second The second shape
+     * @return True if the intersection of the areas of the shapes is not empty
+     */
+    private static boolean areasIntersect(Shape first, Shape second) {
+        final Area area = new Area(first);
+        area.intersect(new Area(second));
+        return !area.isEmpty();
+    }
+
+    /**
+     * Creates an axis-aligned ellipse from its center and its semi axes
+     *
+     * @param cx The x coordinate of the center
+     * @param cy The y coordinate of the center
+     * @param a The semi axis along the x axis
+     * @param b The semi axis along the y axis
+     * @return The ellipse
+     */
+    private static Ellipse2D ellipse(double cx, double cy, double a, double b) {
+        return new Ellipse2D.Double(cx - a, cy - b, 2 * a, 2 * b);
+    }
+
+    /**
+     * Creates a rectangle from its bounds
+     *
+     * @param minX The x coordinate of the left side
+     * @param minY The y coordinate of the top side
+     * @param maxX The x coordinate of the right side
+     * @param maxY The y coordinate of the bottom side
+     * @return The rectangle
+     */
+    private static Rectangle2D rectangle(double minX, double minY, double maxX, double maxY) {
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.gui;
+
+import aco.core.Board;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Draws the ants of a frame with a level of detail depending on their number. Up to a limit each
+ * ant is filled as an ellipse, above it each ant is splatted as a single pixel of a raster covering
+ * the board, the pixels shared by several ants being more opaque, and the raster is drawn with a
+ * single image blit.
+ *
+ * <p>The limit is the ant detail threshold of the settings, lowered to the number of drawn ants
+ * when drawing the ellipses exceeds the frame time budget. Once the frames stay well within their
+ * budget for several windows, the limit is raised halfway back to the threshold, so a single slow
+ * window does not lower the detail for the rest of the run. The layer switches back to ellipses
+ * once the number of ants falls below half the limit, so it does not alternate between both modes
+ * around the limit. The layer is only accessed by the event dispatch thread.
+ */
+final class AntLayer {
+
+    /*
+       The number of density levels of the raster, ants beyond the last one do not change a pixel
+    */
+    private static final int LEVELS = 5;
+    /*
+       Drawing fewer ellipses is not the cause of a slow frame, the limit is never lowered below
+    */
+    private static final int MIN_LIMIT = 100;
+    /*
+       The fraction of the budget under which a frame leaves room for more ellipses
+    */
+    private static final double RAISE_HEADROOM = 0.5;
+    /*
+       The number of consecutive windows under the headroom before the limit is raised
+    */
+    private static final int RAISE_WINDOWS = 5;
+
+    private final int width;
+    private final int height;
+    private final Ellipse2D ant;
+    private final int[] palette;
+    /*
+       The raster, only allocated once the ants are splatted for the first time
+    */
+    private BufferedImage image;
+    private int[] pixels;
+    private byte[] densities;
+    /*
+       The pixels colored by the previous splat, cleared before the next one
+    */
+    private int[] touched;
+    private int touchedCount;
+
+    private final int threshold;
+    private int limit;
+    /*
+       The number of consecutive windows rendered under the headroom of the budget
+    */
+    private int fastWindows;
+    private Color color;
+    private boolean splatting;
+    private int lastAntCount;
+
+    /**
+     * Creates the ant layer of a board
+     *
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param threshold The number of ants above which ants are drawn as pixels
+     */
+    AntLayer(int width, int height, int threshold) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        this.ant = new Ellipse2D.Double();
+        this.palette = new int[LEVELS];
+        this.threshold = Math.max(0, threshold);
+        this.limit = this.threshold;
+    }
+
+    /**
+     * Draw the ants of a frame
+     *
+     * @param g The graphics of the board
+     * @param frame The frame containing the positions of the ants
+     * @param color The color of the ants
+     * @param semiMajor The semi-major axis of an ant
+     * @param semiMinor The semi-minor axis of an ant
+     */
+    void paint(Graphics2D g, Board.Frame frame, Color color, double semiMajor, double semiMinor) {
+        final int ants = frame.getAntCount();
+        this.lastAntCount = ants;
+        this.splatting = ants > this.limit || (this.splatting && ants > this.limit / 2);
+        if (!this.splatting) {
+            g.setPaint(color);
+            for (int id = 0; id < ants; id++) {
+                this.ant.setFrame(
+                        frame.getAntX(id) - semiMajor,
+                        frame.getAntY(id) - semiMinor,
+                        2 * semiMajor,
+                        2 * semiMinor);
+                g.fill(this.ant);
+            }
+            return;
+        }
+        if (this.image == null) {
+            this.allocate();
+        }
+        if (!color.equals(this.color)) {
+            this.setColor(color);
+        }
+        this.splat(frame);
+        g.drawImage(this.image, 0, 0, null);
+    }
+
+    /**
+     * Lower the limit if the frames drawn with ellipses exceeded their time budget, raise it back
+     * toward the threshold once the frames stayed under a fraction of their budget for several
+     * windows. Called on the event dispatch thread at the end of each measurement window of the
+     * frame scheduler.
+     *
+     * @param frameTimeMs The mean time to render a frame during the window
+     * @param budgetMs The time available to render a frame at the target frame rate
+     */
+    void adapt(double frameTimeMs, double budgetMs) {
+        if (frameTimeMs > budgetMs) {
+            this.fastWindows = 0;
+            if (!this.splatting) {
+                this.limit = Math.min(this.limit, Math.max(MIN_LIMIT, this.lastAntCount - 1));
+            }
+            return;
+        }
+        if (frameTimeMs > budgetMs * RAISE_HEADROOM || this.limit >= this.threshold) {
+            this.fastWindows = 0;
+            return;
+        }
+        if (++this.fastWindows < RAISE_WINDOWS) {
+            return;
+        }
+        this.fastWindows = 0;
+        // Halving the gap each time, a limit raised too far is lowered again after one window
+        this.limit += (this.threshold - this.limit + 1) / 2;
+    }
+
+    /** Allocate the raster covering the board */
+    private void allocate() {
+        this.image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB);
+        this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+        this.densities = new byte[this.pixels.length];
+        this.touched = new int[this.pixels.length];
+    }
+
+    /**
+     * Rebuild the palette from the given ant color and recolor the pixels of the previous splat
+     *
+     * @param color The color of the ants
+     */
+    private void setColor(Color color) {
+        this.color = color;
+        final int rgb = color.getRGB() & 0x00FFFFFF;
+        for (int level = 1; level < LEVELS; level++) {
+            // A single ant is clearly visible, the last level is opaque
+            final int alpha = 128 + (level - 1) * 127 / (LEVELS - 2);
+            this.palette[level] = alpha << 24 | rgb;
+        }
+        for (int i = 0; i < this.touchedCount; i++) {
+            final int pixel = this.touched[i];
+            this.pixels[pixel] = this.palette[this.densities[pixel]];
+        }
+    }
+
+    /**
+     * Clear the pixels of the previous splat then color the pixel of each ant of the frame
+     *
+     * @param frame The frame containing the positions of the ants
+     */
+    private void splat(Board.Frame frame) {
+        for (int i = 0; i < this.touchedCount; i++) {
+            final int pixel = this.touched[i];
+            this.pixels[pixel] = 0;
+            this.densities[pixel] = 0;
+        }
+        this.touchedCount = 0;
+        for (int id = 0; id < frame.getAntCount(); id++) {
+            final int x = (int) frame.getAntX(id);
+            final int y = (int) frame.getAntY(id);
+            if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+                continue;
+            }
+            final int pixel = y * this.width + x;
+            final int density = this.densities[pixel];
+            if (density == 0) {
+                this.touched[this.touchedCount++] = pixel;
+            } else if (density == LEVELS - 1) {
+                continue;
+            }
+            this.densities[pixel] = (byte) (density + 1);
+            this.pixels[pixel] = this.palette[density + 1];
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.gui;
+
+import aco.core.Board;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands the frames of the simulation over to the renderer without blocking either side. The
+ * simulation publishes a snapshot at the end of each tick and the renderer takes the latest one
+ * when it paints, through a single atomic slot.
+ *
+ * <p>Ant positions are only needed for the latest tick, but the pheromone changes of every tick
+ * must reach the renderer. When a snapshot is published while the previous one was not taken yet,
+ * the changes of the new tick are merged into the pending snapshot, a newer intensity replacing an
+ * older one, so frames skipped by the renderer never lose a change. Snapshots are recycled once
+ * applied, thus the exchange only allocates a few of them.
+ *
+ * <p>A frame replaced by a newer one while pending is released to the board right away. The frame
+ * of a taken snapshot belongs to the renderer, which releases it once it painted a newer one.
+ */
+final class FrameExchange {
+
+    private final int cells;
+    /*
+       The snapshot published but not taken yet, null if the renderer took the latest one
+    */
+    private final AtomicReference<FrameExchange.Snapshot> pending;
+    /*
+       A snapshot applied by the renderer, ready to be reused by the simulation
+    */
+    private final AtomicReference<FrameExchange.Snapshot> free;
+    /*
+       The snapshot filled by the simulation, only accessed by the simulation thread
+    */
+    private FrameExchange.Snapshot back;
+
+    /**
+     * Creates an exchange for the frames of a board
+     *
+     * @param cells The number of pheromone cells of the board
+     */
+    FrameExchange(int cells) {
+        this.cells = cells;
+        this.pending = new AtomicReference<>();
+        this.free = new AtomicReference<>();
+        this.back = new FrameExchange.Snapshot(cells);
+    }
+
+    /**
+     * Publish the changes of a tick. Called by the simulation thread only
+     *
+     * @param frame The changes of the tick
+     */
+    void publish(Board.Frame frame) {
+        this.back.frame = frame;
+        for (int i = 0; i < frame.getPheromoneCount(); i++) {
+            this.back.put(frame.getPheromoneCell(i), frame.getPheromoneIntensity(i));
+        }
+        final FrameExchange.Snapshot previous = this.pending.getAndSet(null);
+        if (previous == null) {
+            this.pending.set(this.back);
+            final FrameExchange.Snapshot recycled = this.free.getAndSet(null);
+            this.back = recycled != null ? recycled : new FrameExchange.Snapshot(this.cells);
+            return;
+        }
+        // The renderer skipped the previous snapshot, carry its changes over
+        previous.merge(this.back);
+        this.back.clear();
+        this.pending.set(previous);
+    }
+
+    /**
+     * Take the latest snapshot, if a new one was published. Once applied, the snapshot must be
+     * given back with {@link #release(Snapshot)}.
+     *
+     * @return The latest snapshot, null if no snapshot was published since the last call
+     */
+    FrameExchange.Snapshot take() {
+        return this.pending.getAndSet(null);
+    }
+
+    /**
+     * Give back an applied snapshot so the simulation can reuse it
+     *
+     * @param snapshot The snapshot returned by {@link #take()}
+     */
+    void release(FrameExchange.Snapshot snapshot) {
+        snapshot.clear();
+        this.free.set(snapshot);
+    }
+
+    /** The latest ant positions and the pheromone changes since the previous taken snapshot */
+    static final class Snapshot {
+        private Board.Frame frame;
+        private final int[] changedCells;
+        private final float[] intensities;
+        /*
+           The position of each cell in the changed cells, -1 if it did not change
+        */
+        private final int[] positions;
+        private int count;
+
+        private Snapshot(int cells) {
+            this.changedCells = new int[cells];
+            this.intensities = new float[cells];
+            this.positions = new int[cells];
+            Arrays.fill(this.positions, -1);
+        }
+
+        /**
+         * Set the intensity of a changed cell, replacing its previous change if any
+         *
+         * @param cell The index of the cell
+         * @param intensity The new intensity of the cell
+         */
+        private void put(int cell, float intensity) {
+            final int position = this.positions[cell];
+            if (position >= 0) {
+                this.intensities[position] = intensity;
+                return;
+            }
+            this.positions[cell] = this.count;
+            this.changedCells[this.count] = cell;
+            this.intensities[this.count++] = intensity;
+        }
+
+        /**
+         * Apply the changes of a newer snapshot over this one
+         *
+         * @param newer The newer snapshot
+         */
+        private void merge(FrameExchange.Snapshot newer) {
+            if (this.frame != null) {
+                // The renderer never sees the skipped frame, the board can reuse it
+                this.frame.release();
+            }
+            this.frame = newer.frame;
+            for (int i = 0; i < newer.count; i++) {
+                this.put(newer.changedCells[i], newer.intensities[i]);
+            }
+        }
+
+        /** Forget the frame, now held elsewhere, and all the changes */
+        private void clear() {
+            for (int i = 0; i < this.count; i++) {
+                this.positions[this.changedCells[i]] = -1;
+            }
+            this.count = 0;
+            this.frame = null;
+        }
+
+        /**
+         * Get the frame of the latest tick, containing the positions of the ants
+         *
+         * @return The latest frame
+         */
+        Board.Frame getFrame() {
+            return this.frame;
+        }
+
+        /**
+         * Get the number of pheromone cells changed since the previous taken snapshot
+         *
+         * @return The number of changed cells
+         */
+        int getChangeCount() {
+            return this.count;
+        }
+
+        /**
+         * Get a changed pheromone cell
+         *
+         * @param i The index of the change
+         * @return The index of the cell
+         */
+        int getChangedCell(int i) {
+            return this.changedCells[i];
+        }
+
+        /**
+         * Get the latest intensity of a changed pheromone cell
+         *
+         * @param i The index of the change
+         * @return The intensity of the cell
+         */
+        float getIntensity(int i) {
+            return this.intensities[i];
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.gui;
+
+import java.awt.event.ActionEvent;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Paces the rendering of a component at a target number of frames per second, independently of the
+ * pace of the simulation. Frames are triggered by a coalescing Swing timer and painted
+ * synchronously on the event dispatch thread, so at most one frame is pending at any time and the
+ * frames the event dispatch thread could not render in time are dropped instead of queued.
+ *
+ * <p>The achieved frame rate, the mean frame time and the number of dropped frames are measured
+ * over windows of one second, the listener is notified on the event dispatch thread at the end of
+ * each window.
+ */
+final class FrameScheduler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JComponent component;
+    private final Runnable onStatistics;
+    private final Timer timer;
+    private final long periodNanos;
+
+    /*
+       Only accessed on the event dispatch thread
+    */
+    private long lastFrame;
+    private long windowStart;
+    private int windowFrames;
+    private long windowFrameNanos;
+    private long windowDropped;
+    private double framesPerSecond;
+    private double frameTimeMs;
+    private long droppedFrames;
+
+    /**
+     * Creates a stopped frame scheduler
+     *
+     * @param component The component to render
+     * @param targetFramesPerSecond The number of frames to render per second
+     * @param onStatistics Called on the event dispatch thread when the statistics are updated
+     */
+    FrameScheduler(JComponent component, int targetFramesPerSecond, Runnable onStatistics) {
+        this.component = component;
+        this.onStatistics = onStatistics;
+        final int fps = Math.max(1, targetFramesPerSecond);
+        this.periodNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+        this.timer = new Timer(Math.max(1, 1000 / fps), this::frame);
+        // Timer events the event dispatch thread did not process yet are merged in a single one
+        this.timer.setCoalesce(true);
+    }
+
+    /** Start rendering frames, does nothing if already started */
+    void start() {
+        if (this.timer.isRunning()) {
+            return;
+        }
+        // The frames rendered before a pause do not count in the first window after it
+        this.lastFrame = 0;
+        this.windowStart = System.nanoTime();
+        this.windowFrames = 0;
+        this.windowFrameNanos = 0;
+        this.windowDropped = 0;
+        this.timer.start();
+    }
+
+    /** Stop rendering frames, after rendering a last one showing the current state */
+    void stop() {
+        this.timer.stop();
+        this.component.repaint();
+    }
+
+    /**
+     * Render a frame, called on the event dispatch thread by the timer
+     *
+     * @param ignore The event of the timer
+     */
+    private void frame(ActionEvent ignore) {
+        final long start = System.nanoTime();
+        if (this.lastFrame != 0) {
+            // Periods elapsed without a frame were dropped
+            this.windowDropped += Math.max(0, (start - this.lastFrame) / this.periodNanos - 1);
+        }
+        this.lastFrame = start;
+        this.component.paintImmediately(
+                0, 0, this.component.getWidth(), this.component.getHeight());
+        final long end = System.nanoTime();
+        this.windowFrames++;
+        this.windowFrameNanos += end - start;
+        final long elapsed = end - this.windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+        this.framesPerSecond = this.windowFrames * 1e9 / elapsed;
+        this.frameTimeMs = this.windowFrameNanos / 1e6 / this.windowFrames;
+        this.droppedFrames += this.windowDropped;
+        this.windowStart = end;
+        this.windowFrames = 0;
+        this.windowFrameNanos = 0;
+        this.windowDropped = 0;
+        this.onStatistics.run();
+    }
+
+    /**
+     * Get the number of frames rendered per second during the last window
+     *
+     * @return The achieved frame rate
+     */
+    double getFramesPerSecond() {
+        return this.framesPerSecond;
+    }
+
+    /**
+     * Get the mean time to render a frame during the last window
+     *
+     * @return The mean frame time in milliseconds
+     */
+    double getFrameTimeMs() {
+        return this.frameTimeMs;
+    }
+
+    /**
+     * Get the number of frames dropped since the creation of the scheduler
+     *
+     * @return The number of dropped frames
+     */
+    long getDroppedFrames() {
+        return this.droppedFrames;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.gui;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Raster of the pheromones of a board, one pixel per pheromone cell. Frames only update the pixels
+ * of their changed cells, and the whole raster is drawn with a single scaled image blit, so the
+ * cost of a frame does not depend on the number of pheromones on the board.
+ *
+ * <p>The heatmap is only accessed by the painting thread.
+ *
+ * <p>Intensities are mapped to the 256 entries of a palette derived from the pheromone color, the
+ * intensity giving the alpha channel. The palette is rebuilt when the pheromone color changes.
+ */
+final class PheromoneHeatmap {
+
+    /*
+       The number of entries of the palette, intensities are saturated to the last one
+    */
+    private static final int LEVELS = 256;
+
+    private final int cellSize;
+    private final BufferedImage image;
+    /*
+       The pixels of the image, in the order of the pheromone cells
+    */
+    private final int[] pixels;
+    /*
+       The palette level of each cell, to recolor the raster when the palette changes
+    */
+    private final byte[] levels;
+    private final int[] palette;
+    private Color color;
+
+    /**
+     * Creates an empty heatmap covering a board
+     *
+     * @param width The width of the board
+     * @param height The height of the board
+     * @param cellSize The length of the side of a pheromone cell
+     * @param color The color of the pheromones
+     */
+    PheromoneHeatmap(int width, int height, int cellSize, Color color) {
+        this.cellSize = Math.max(1, cellSize);
+        final int columns = Math.max(1, (int) Math.ceil((double) width / this.cellSize));
+        final int rows = Math.max(1, (int) Math.ceil((double) height / this.cellSize));
+        this.image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+        this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+        this.levels = new byte[columns * rows];
+        this.palette = new int[LEVELS];
+        this.setColor(color);
+    }
+
+    /**
+     * Get the number of pheromone cells covered by the heatmap
+     *
+     * @return The number of cells
+     */
+    int getCellCount() {
+        return this.levels.length;
+    }
+
+    /**
+     * Update the pixels of the pheromone cells changed since the previous snapshot
+     *
+     * @param snapshot The changes of the skipped and latest ticks
+     */
+    void apply(FrameExchange.Snapshot snapshot) {
+        for (int i = 0; i < snapshot.getChangeCount(); i++) {
+            final int cell = snapshot.getChangedCell(i);
+            final int level =
+                    Math.max(0, Math.min(LEVELS - 1, Math.round(snapshot.getIntensity(i))));
+            this.levels[cell] = (byte) level;
+            this.pixels[cell] = this.palette[level];
+        }
+    }
+
+    /**
+     * Draw the heatmap over the whole board
+     *
+     * @param g The graphics of the board
+     * @param color The current color of the pheromones
+     */
+    void paint(Graphics2D g, Color color) {
+        if (!color.equals(this.color)) {
+            this.setColor(color);
+        }
+        g.drawImage(
+                this.image,
+                0,
+                0,
+                this.image.getWidth() * this.cellSize,
+                this.image.getHeight() * this.cellSize,
+                null);
+    }
+
+    /**
+     * Rebuild the palette from the given pheromone color and recolor all the pixels
+     *
+     * @param color The color of the pheromones
+     */
+    private void setColor(Color color) {
+        this.color = color;
+        final int rgb = color.getRGB() & 0x00FFFFFF;
+        this.palette[0] = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            this.palette[level] = level << 24 | rgb;
+        }
+        for (int cell = 0; cell < this.levels.length; cell++) {
+            this.pixels[cell] = this.palette[this.levels[cell] & 0xFF];
+        }
+    }
+}
@@ -4,24 +4,17 @@
 package aco.gui;
 
 import aco.core.Board;
+import aco.core.MessageResolver;
 import aco.core.Settings;
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.BorderFactory;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.SwingWorker;
 
 class PreviewPanel extends AbstractMapPanel {
 
@@ -41,82 +34,25 @@ class PreviewPanel extends AbstractMapPanel {
 
     private final class PreviewPanelController
             extends AbstractController.AbstractStatefulController<ACOPreviewState>
-            implements Board.Subscriber {
+            implements Board.FrameSubscriber {
 
         private final Board board;
-        private BoardWorker boardWorker;
-        private BoardPreviewWorker boardPreviewWorker;
+        private FrameScheduler frameScheduler;
 
         PreviewPanelController(Board board) {
             super(ACOPreviewState.PAUSED);
             this.board = board;
-            this.board.subscribe(this);
+            this.board.subscribeFrames(this);
         }
 
         /**
-         * Method called on ant moved
+         * Method called at the end of each tick with all the changes of the tick
          *
-         * @param uuid The uuid of the ant to move
-         * @param to The new position of the ant
+         * @param frame The changes of the tick
          */
         @Override
-        public void onAntMoved(UUID uuid, Point2D to) {
-            PreviewPanel.this.previewContainer.previewBoard.moveAnt(uuid, to);
-        }
-
-        /**
-         * The method called when new ants are spawned
-         *
-         * @param uuid The unique identifier of the created ant
-         * @param location The location of the spawned ant
-         */
-        @Override
-        public void onNewAntsSpawned(UUID uuid, Point2D location) {
-            PreviewPanel.this.previewContainer.previewBoard.addAnt(uuid, location);
-        }
-
-        /**
-         * Method called when the intensity of a pheromone changed
-         *
-         * @param position The position of the pheromone that its intensity changed
-         * @param delta The delta of the intensity change
-         */
-        @Override
-        public void onPheromoneIntensityChanged(Point2D position, int delta) {
-            PreviewPanel.this.previewContainer.previewBoard.updatePheromoneIntensity(
-                    position, delta);
-        }
-
-        /** Method called when a subscriber successfully subscribed to the board */
-        @Override
-        public void onSubscribed() {
-            System.out.println("Subscribed to the board");
-        }
-
-        /** Method called when the subscriber unsubscribed successfully */
-        @Override
-        public void onUnsubscribe() {
-            System.out.println("Unsubscribed from the board");
-        }
-
-        /**
-         * Method called if the subscription is failed
-         *
-         * @param message The error message
-         */
-        @Override
-        public void onSubscriptionFailed(String message) {
-            System.err.println(message);
-        }
-
-        /**
-         * Method called if the unsubscribe action fails
-         *
-         * @param message The error message
-         */
-        @Override
-        public void onUnsubscribeFailed(String message) {
-            System.err.println(message);
+        public void onFrame(Board.Frame frame) {
+            PreviewPanel.this.previewContainer.previewBoard.frames.publish(frame);
         }
 
         private ActionListener getHeaderButtonActionListener(
@@ -138,24 +74,37 @@ class PreviewPanel extends AbstractMapPanel {
             };
         }
 
-        /** Initialises all workers */
+        /** Start or resume the simulation and initialises all workers */
         private void initWorkers() {
-            /*
-             * Swing workers is made to be executed only once. That's why we need to reinitialise
-             * each worker because otherwise calling execute on a canceled executor will return
-             * error.
-             */
-            this.boardWorker = new BoardWorker();
-            this.boardWorker.execute();
+            // The simulation runs on its own worker thread, starting it again has no effect
+            this.board.start();
+            this.board.resume();
+            // Rendering is paced independently of the simulation
+            if (this.frameScheduler == null) {
+                this.frameScheduler =
+                        new FrameScheduler(
+                                PreviewPanel.this.previewContainer.previewBoard,
+                                PreviewPanel.this.settings.targetFramesPerSecond(),
+                                this::onStatistics);
+            }
+            this.frameScheduler.start();
+        }
 
-            this.boardPreviewWorker = new BoardPreviewWorker();
-            this.boardPreviewWorker.execute();
+        /**
+         * Method called by the frame scheduler when the rendering statistics are updated, lets the
+         * ants be drawn with less detail if the frames exceed their time budget
+         */
+        private void onStatistics() {
+            PreviewPanel.this.previewContainer.previewBoard.ants.adapt(
+                    this.frameScheduler.getFrameTimeMs(),
+                    1000.0 / PreviewPanel.this.settings.targetFramesPerSecond());
+            PreviewPanel.this.header.statusBar.updateDisplay();
         }
 
-        /** Cancel all workers */
+        /** Pause the simulation and cancel all workers */
         private void cancelWorkers() {
-            this.boardWorker.cancel();
-            this.boardPreviewWorker.cancel();
+            this.board.pause();
+            this.frameScheduler.stop();
         }
 
         @Override
@@ -193,55 +142,6 @@ class PreviewPanel extends AbstractMapPanel {
             PreviewPanel.this.previewContainer.revalidate();
             PreviewPanel.this.previewContainer.repaint();
         }
-
-        private class BoardWorker extends SwingWorker<Void, Void> {
-
-            /**
-             * Computes a result, or throws an exception if unable to do so.
-             *
-             * <p>Note that this method is executed only once.
-             *
-             * <p>Note: this method is executed in a background thread.
-             *
-             * @return the computed result
-             * @throws Exception if unable to compute a result
-             */
-            @Override
-            protected Void doInBackground() throws Exception {
-                PreviewPanelController.this.board.run();
-                return null;
-            }
-
-            private void cancel() {
-                PreviewPanelController.this.board.pause();
-                super.cancel(true);
-            }
-        }
-
-        private class BoardPreviewWorker extends SwingWorker<Void, Void> {
-
-            /**
-             * Computes a result, or throws an exception if unable to do so.
-             *
-             * <p>Note that this method is executed only once.
-             *
-             * <p>Note: this method is executed in a background thread.
-             *
-             * @return the computed result
-             * @throws Exception if unable to compute a result
-             */
-            @Override
-            protected Void doInBackground() throws Exception {
-                while (true) {
-                    PreviewPanel.this.previewContainer.previewBoard.revalidate();
-                    PreviewPanel.this.previewContainer.previewBoard.repaint();
-                }
-            }
-
-            protected void cancel() {
-                super.cancel(true);
-            }
-        }
     }
 
     private final class PreviewContainer extends JPanel {
@@ -270,12 +170,30 @@ class PreviewPanel extends AbstractMapPanel {
         }
 
         private final class PreviewBoard extends AbstractBoardPanel {
-            private final ConcurrentHashMap<UUID, Ellipse2D> ants;
-            private final ConcurrentHashMap<Point2D, Integer> pheromones;
+            private final FrameExchange frames;
+            private final StaticLayer background;
+            private final PheromoneHeatmap pheromones;
+            private final AntLayer ants;
+            /*
+               The latest frame taken from the exchange, only accessed by the painting thread
+            */
+            private Board.Frame frame;
 
             private PreviewBoard() {
-                this.ants = new ConcurrentHashMap<>();
-                this.pheromones = new ConcurrentHashMap<>();
+                this.background = new StaticLayer();
+                final Board board = PreviewPanel.this.controller.board;
+                this.ants =
+                        new AntLayer(
+                                (int) board.getWidth(),
+                                (int) board.getHeight(),
+                                PreviewPanel.this.settings.antDetailThreshold());
+                this.pheromones =
+                        new PheromoneHeatmap(
+                                (int) board.getWidth(),
+                                (int) board.getHeight(),
+                                board.getPheromoneCellSize(),
+                                PreviewPanel.this.settings.pheromoneColor());
+                this.frames = new FrameExchange(this.pheromones.getCellCount());
                 this.setBorder(
                         BorderFactory.createLineBorder(
                                 PreviewPanel.this.settings.boardBorderColor(), 3, false));
@@ -283,46 +201,22 @@ class PreviewPanel extends AbstractMapPanel {
             }
 
             /**
-             * Add a new ant to the preview board
-             *
-             * @param center The center of the ant to add
-             */
-            private synchronized void addAnt(UUID uuid, Point2D center) {
-                final Ellipse2D ant =
-                        new Ellipse2D.Double(
-                                center.getX() - PreviewPanel.this.settings.antsSemiMajorAxis(),
-                                center.getY() - PreviewPanel.this.settings.antsSemiMinorAxis(),
-                                2 * PreviewPanel.this.settings.antsSemiMajorAxis(),
-                                2 * PreviewPanel.this.settings.antsSemiMinorAxis());
-                this.ants.put(uuid, ant);
-            }
-
-            /**
-             * Move the ant from one point to another.An ant should
-             *
-             * @param uuid The unique identifier of the ant to move
-             * @param to The new point to move the ant
+             * Apply the latest snapshot published by the simulation, if any. The simulation is
+             * never blocked, ticks published since the previous paint are carried over by the
+             * exchange. The frame painted so far is given back to the board.
              */
-            private synchronized void moveAnt(UUID uuid, Point2D to) {
-                final Ellipse2D ant = this.ants.get(uuid);
-                if (ant != null) {
-                    ant.setFrame(
-                            to.getX() - PreviewPanel.this.settings.antsSemiMajorAxis(),
-                            to.getY() - PreviewPanel.this.settings.antsSemiMinorAxis(),
-                            2 * PreviewPanel.this.settings.antsSemiMajorAxis(),
-                            2 * PreviewPanel.this.settings.antsSemiMinorAxis());
+            private void takeFrame() {
+                final FrameExchange.Snapshot snapshot = this.frames.take();
+                if (snapshot == null) {
+                    return;
                 }
-            }
-
-            /**
-             * Updates the intensity of the pheromone by the given value at the given location
-             *
-             * @param location The location of the pheromone to update
-             * @param intensity The change in the intensity
-             */
-            private synchronized void updatePheromoneIntensity(Point2D location, int intensity) {
-                this.pheromones.put(
-                        location, (this.pheromones.getOrDefault(location, 0) + intensity));
+                if (this.frame != null) {
+                    // Painted for the last time, the board can reuse it
+                    this.frame.release();
+                }
+                this.frame = snapshot.getFrame();
+                this.pheromones.apply(snapshot);
+                this.frames.release(snapshot);
             }
 
             private void toggleRunner() {
@@ -331,84 +225,28 @@ class PreviewPanel extends AbstractMapPanel {
 
             @Override
             public void paintComponent(Graphics g) {
+                this.takeFrame();
                 Graphics2D g2 = (Graphics2D) g;
-                final Color baseColor = PreviewPanel.this.settings.mapBackgroundColor();
-                g2.setPaint(baseColor);
-                g2.fill(
-                        new Rectangle2D.Double(
-                                0,
-                                0,
-                                PreviewPanel.this.controller.board.getWidth(),
-                                PreviewPanel.this.controller.board.getHeight()));
-                final Ellipse2D sourcePoint, destinationPoint;
-                g2.setPaint(PreviewPanel.this.settings.sourcePointColor());
-
-                sourcePoint =
-                        new Ellipse2D.Double(
-                                PreviewPanel.this.controller.board.getSourcePointLocation().getX(),
-                                PreviewPanel.this.controller.board.getSourcePointLocation().getY(),
-                                PreviewPanel.this.settings.sourcePointRadius() * 2,
-                                PreviewPanel.this.settings.sourcePointRadius() * 2);
-                g2.fill(sourcePoint);
-                g2.setPaint(PreviewPanel.this.settings.destinationPointColor());
-                destinationPoint =
-                        new Ellipse2D.Double(
-                                PreviewPanel.this
-                                        .controller
-                                        .board
-                                        .getDestinationPointLocation()
-                                        .getX(),
-                                PreviewPanel.this
-                                        .controller
-                                        .board
-                                        .getDestinationPointLocation()
-                                        .getY(),
-                                PreviewPanel.this.settings.destinationPointRadius() * 2,
-                                PreviewPanel.this.settings.destinationPointRadius() * 2);
-                g2.fill(destinationPoint);
-
-                g2.setPaint(PreviewPanel.this.settings.obstacleColor());
-                PreviewPanel.this.controller.board.getObstacles().parallelStream()
-                        .forEach(
-                                (Rectangle o) -> {
-                                    g2.fill(o);
-                                });
-                g2.setPaint(PreviewPanel.this.settings.antColor());
-                this.ants.values().parallelStream().forEach(g2::fill);
-                this.pheromones.entrySet().parallelStream()
-                        .forEach(
-                                (Map.Entry<Point2D, Integer> p) -> {
-                                    Color c =
-                                            new Color(
-                                                    PreviewPanel.this
-                                                            .settings
-                                                            .pheromoneColor()
-                                                            .getRed(),
-                                                    PreviewPanel.this
-                                                            .settings
-                                                            .pheromoneColor()
-                                                            .getGreen(),
-                                                    PreviewPanel.this
-                                                            .settings
-                                                            .pheromoneColor()
-                                                            .getBlue(),
-                                                    /*
-                                                       Don't use float constructor of Color it will
-                                                       require to divide all RGB values by 255f
-                                                       with is not necessary, instead use modulus
-                                                       on alpha with integer Color constructor
-                                                    */
-                                                    p.getValue() % 255);
-                                    g2.setPaint(c);
-                                    g2.fill(
-                                            new Ellipse2D.Double(
-                                                    p.getKey().getX() - 1,
-                                                    p.getKey().getY() - 1,
-                                                    2,
-                                                    2));
-                                });
-
-                g2.setPaint(baseColor);
+                final Board board = PreviewPanel.this.controller.board;
+                // Background, endpoints and obstacles do not change during a run
+                this.background.paint(
+                        g2, this.getGraphicsConfiguration(), board, PreviewPanel.this.settings);
+                this.pheromones.paint(g2, PreviewPanel.this.settings.pheromoneColor());
+                if (this.frame != null) {
+                    this.ants.paint(
+                            g2,
+                            this.frame,
+                            PreviewPanel.this.settings.antColor(),
+                            PreviewPanel.this.settings.antsSemiMajorAxis(),
+                            PreviewPanel.this.settings.antsSemiMinorAxis());
+                }
+            }
+
+            @Override
+            public void addNotify() {
+                super.addNotify();
+                // The cached layer must be compatible with the screen showing the board
+                this.background.invalidate();
             }
         }
     }
@@ -446,9 +284,26 @@ class PreviewPanel extends AbstractMapPanel {
         }
 
         private final class StatusBar extends AbstractStatusBar {
+            private final JLabel frameRate;
 
+            private StatusBar() {
+                this.frameRate = new JLabel();
+                this.addX(this.frameRate);
+            }
+
+            /** Update the rendering statistics with the frame scheduler data */
             private void updateDisplay() {
-                // TODO: Complete function implementation
+                final FrameScheduler scheduler = PreviewPanel.this.controller.frameScheduler;
+                if (scheduler == null) {
+                    return;
+                }
+                this.frameRate.setText(
+                        String.format(
+                                MessageResolver.getMessage("gui.preview.status.bar.frame.rate"),
+                                scheduler.getFramesPerSecond(),
+                                PreviewPanel.this.settings.targetFramesPerSecond(),
+                                scheduler.getFrameTimeMs(),
+                                scheduler.getDroppedFrames()));
             }
         }
 
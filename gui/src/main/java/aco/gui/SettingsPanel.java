@@ -154,14 +154,42 @@ class SettingsPanel extends JPanel {
             this.settingsBuilder.setPheromoneEvaporationTimeout(timeoutMs);
         }
 
-        public void setThreadpoolSize(Integer threadpoolSize) {
-            this.settingsBuilder.setThreadpoolSize(threadpoolSize);
-        }
-
         public void setNumberOfClusters(Integer nbClusters) {
             this.settingsBuilder.setNumberOfClusters(nbClusters);
         }
 
+        public void setTicksPerSecond(Integer ticksPerSecond) {
+            this.settingsBuilder.setTicksPerSecond(ticksPerSecond);
+        }
+
+        public void setPheromoneCellSize(Integer pheromoneCellSize) {
+            this.settingsBuilder.setPheromoneCellSize(pheromoneCellSize);
+        }
+
+        public void setAntSensingRadius(Integer antSensingRadius) {
+            this.settingsBuilder.setAntSensingRadius(antSensingRadius);
+        }
+
+        public void setPheromoneCompactionIntervalMs(Integer pheromoneCompactionIntervalMs) {
+            this.settingsBuilder.setPheromoneCompactionIntervalMs(pheromoneCompactionIntervalMs);
+        }
+
+        public void setOccupancyCellSize(Integer occupancyCellSize) {
+            this.settingsBuilder.setOccupancyCellSize(occupancyCellSize);
+        }
+
+        public void setPheromoneDiffusionRate(Integer pheromoneDiffusionRate) {
+            this.settingsBuilder.setPheromoneDiffusionRate(pheromoneDiffusionRate);
+        }
+
+        public void setTargetFramesPerSecond(Integer targetFramesPerSecond) {
+            this.settingsBuilder.setTargetFramesPerSecond(targetFramesPerSecond);
+        }
+
+        public void setAntDetailThreshold(Integer antDetailThreshold) {
+            this.settingsBuilder.setAntDetailThreshold(antDetailThreshold);
+        }
+
         public ActionListener getSettingsButtonActionListener(
                 SettingsButtonsContainer.SettingsButtonTypes buttonType) {
             return switch (buttonType) {
@@ -549,13 +577,6 @@ class SettingsPanel extends JPanel {
                                 SettingsPanel.this.controller.settingsBuilder
                                         .pheromoneEvaporationTimeoutSpinnerConfig(),
                                 SettingsPanel.this.controller::setPheromoneIntensityTimeoutMs));
-                super.addRow(
-                        new SettingsContainerNumberSpinnerRow(
-                                MessageResolver.getMessage("gui.settings.threadpool.size.title"),
-                                MessageResolver.getMessage("gui.settings.threadpool.size.tooltip"),
-                                SettingsPanel.this.controller.settingsBuilder
-                                        .threadPoolSizeConfig(),
-                                SettingsPanel.this.controller::setThreadpoolSize));
                 super.addRow(
                         new SettingsContainerNumberSpinnerRow(
                                 MessageResolver.getMessage("gui.settings.nb.clusters.title"),
@@ -563,6 +584,75 @@ class SettingsPanel extends JPanel {
                                 SettingsPanel.this.controller.settingsBuilder
                                         .numberOfClustersConfig(),
                                 SettingsPanel.this.controller::setNumberOfClusters));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage("gui.settings.ticks.per.second.title"),
+                                MessageResolver.getMessage("gui.settings.ticks.per.second.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .ticksPerSecondConfig(),
+                                SettingsPanel.this.controller::setTicksPerSecond));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.cell.size.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.cell.size.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .pheromoneCellSizeConfig(),
+                                SettingsPanel.this.controller::setPheromoneCellSize));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage("gui.settings.ant.sensing.radius.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.ant.sensing.radius.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .antSensingRadiusConfig(),
+                                SettingsPanel.this.controller::setAntSensingRadius));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.compaction.interval.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.compaction.interval.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .pheromoneCompactionIntervalMsConfig(),
+                                SettingsPanel.this.controller::setPheromoneCompactionIntervalMs));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.occupancy.cell.size.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.occupancy.cell.size.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .occupancyCellSizeConfig(),
+                                SettingsPanel.this.controller::setOccupancyCellSize));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.diffusion.rate.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.pheromone.diffusion.rate.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .pheromoneDiffusionRateConfig(),
+                                SettingsPanel.this.controller::setPheromoneDiffusionRate));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.target.frames.per.second.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.target.frames.per.second.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .targetFramesPerSecondConfig(),
+                                SettingsPanel.this.controller::setTargetFramesPerSecond));
+                super.addRow(
+                        new SettingsContainerNumberSpinnerRow(
+                                MessageResolver.getMessage(
+                                        "gui.settings.ant.detail.threshold.title"),
+                                MessageResolver.getMessage(
+                                        "gui.settings.ant.detail.threshold.tooltip"),
+                                SettingsPanel.this.controller.settingsBuilder
+                                        .antDetailThresholdConfig(),
+                                SettingsPanel.this.controller::setAntDetailThreshold));
             }
         }
 
@@ -0,0 +1,176 @@
+/*
+22015094 - SAGLAM Idil
+*/
+package aco.gui;
+
+import aco.core.Board;
+import aco.core.Settings;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+/**
+ * Cached rendering of the parts of a board which do not change during a run: the background, the
+ * obstacles and the source and destination points. The layer is rendered once into an image
+ * compatible with the screen, then each frame only blits it before drawing the pheromones and the
+ * ants, whatever the number of obstacles.
+ *
+ * <p>The image is rendered again only when the board or one of the settings used to draw the layer
+ * changes, or after {@link #invalidate()}. The layer is only accessed by the painting thread.
+ */
+final class StaticLayer {
+
+    private BufferedImage image;
+    /*
+       What the current image was rendered from, null if no image was rendered yet
+    */
+    private StaticLayer.Key key;
+
+    /**
+     * Draw the static layer of a board, rendering it again if it is outdated
+     *
+     * @param g The graphics of the board
+     * @param configuration The graphics configuration of the component, null if not displayable
+     * @param board The board to draw
+     * @param settings The settings giving the colors and the sizes of the layer
+     */
+    void paint(Graphics2D g, GraphicsConfiguration configuration, Board board, Settings settings) {
+        final StaticLayer.Key current = StaticLayer.Key.of(board, settings);
+        if (this.image == null || !current.equals(this.key)) {
+            this.render(configuration, board, current);
+        }
+        g.drawImage(this.image, 0, 0, null);
+    }
+
+    /**
+     * Forget the rendered image, the next paint renders the layer again. Called when the component
+     * moves to another screen, whose graphics configuration may differ.
+     */
+    void invalidate() {
+        this.key = null;
+    }
+
+    /**
+     * Render the static layer into the cached image, reusing the image if its size did not change
+     *
+     * @param configuration The graphics configuration of the component, null if not displayable
+     * @param board The board to draw
+     * @param key What the image is rendered from
+     */
+    private void render(GraphicsConfiguration configuration, Board board, StaticLayer.Key key) {
+        final int width = Math.max(1, (int) Math.ceil(board.getWidth()));
+        final int height = Math.max(1, (int) Math.ceil(board.getHeight()));
+        if (this.image == null
+                || this.image.getWidth() != width
+                || this.image.getHeight() != height) {
+            // A compatible image is kept in video memory by Java2D when acceleration is available
+            this.image =
+                    configuration != null
+                            ? configuration.createCompatibleImage(
+                                    width, height, Transparency.OPAQUE)
+                            : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        final Graphics2D g = this.image.createGraphics();
+        try {
+            g.setPaint(key.background());
+            g.fillRect(0, 0, width, height);
+            g.setPaint(key.sourceColor());
+            g.fill(StaticLayer.point(key.source(), key.sourceRadius()));
+            g.setPaint(key.destinationColor());
+            g.fill(StaticLayer.point(key.destination(), key.destinationRadius()));
+            g.setPaint(key.obstacleColor());
+            for (Rectangle obstacle : board.getObstacles()) {
+                g.fill(obstacle);
+            }
+        } finally {
+            g.dispose();
+        }
+        this.key = key;
+    }
+
+    /**
+     * Get the shape of a source or destination point
+     *
+     * @param location The location of the point
+     * @param radius The radius of the point
+     * @return The shape of the point
+     */
+    private static Ellipse2D point(Point location, int radius) {
+        return new Ellipse2D.Double(location.getX(), location.getY(), radius * 2, radius * 2);
+    }
+
+    /**
+     * Everything the static layer is rendered from. The board is compared by identity, its
+     * obstacles do not change once built.
+     */
+    private record Key(
+            Board board,
+            Point source,
+            Point destination,
+            Color background,
+            Color sourceColor,
+            Color destinationColor,
+            Color obstacleColor,
+            int sourceRadius,
+            int destinationRadius) {
+
+        /**
+         * Get the key of a board drawn with the given settings
+         *
+         * @param board The board
+         * @param settings The settings
+         * @return The key of the layer
+         */
+        private static StaticLayer.Key of(Board board, Settings settings) {
+            return new StaticLayer.Key(
+                    board,
+                    board.getSourcePointLocation(),
+                    board.getDestinationPointLocation(),
+                    settings.mapBackgroundColor(),
+                    settings.sourcePointColor(),
+                    settings.destinationPointColor(),
+                    settings.obstacleColor(),
+                    settings.sourcePointRadius(),
+                    settings.destinationPointRadius());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StaticLayer.Key other)) {
+                return false;
+            }
+            return this.board == other.board
+                    && this.sourceRadius == other.sourceRadius
+                    && this.destinationRadius == other.destinationRadius
+                    && this.source.equals(other.source)
+                    && this.destination.equals(other.destination)
+                    && this.background.equals(other.background)
+                    && this.sourceColor.equals(other.sourceColor)
+                    && this.destinationColor.equals(other.destinationColor)
+                    && this.obstacleColor.equals(other.obstacleColor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    System.identityHashCode(this.board),
+                    this.source,
+                    this.destination,
+                    this.background,
+                    this.sourceColor,
+                    this.destinationColor,
+                    this.obstacleColor,
+                    this.sourceRadius,
+                    this.destinationRadius);
+        }
+    }
+}